@@ -46,6 +46,11 @@ dependencies {
     }
     modCompileOnly(libs.viaversion)
 
+    testImplementation(platform(libs.junit.bom))
+    testImplementation(libs.junit.jupiter)
+    testImplementation(libs.fabric.loader.junit)
+    testRuntimeOnly(libs.junit.platformLauncher)
+
     // [1] declare fabric-api dependency...
     fabricApi(libs.fabric.api)
 
@@ -106,6 +111,10 @@ dependencies {
 
 val targetJavaVersion: String by project
 tasks {
+    test {
+        useJUnitPlatform()
+    }
+
     register("generateStandaloneRun") {
         description = "Generate a script that will run WorldEdit CUI, for graphics debugging"
         val scriptDest = project.layout.buildDirectory.file(if (System.getProperty("os.name").contains("windows", ignoreCase = true)) {
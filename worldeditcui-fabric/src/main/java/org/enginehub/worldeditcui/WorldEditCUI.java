@@ -19,9 +19,13 @@ import org.enginehub.worldeditcui.render.CUISelectionProvider;
 import org.enginehub.worldeditcui.render.ConfiguredColour;
 import org.enginehub.worldeditcui.render.region.CuboidRegion;
 import org.enginehub.worldeditcui.render.region.Region;
+import org.enginehub.worldeditcui.render.region.RegionIndex;
 import org.enginehub.worldeditcui.render.shapes.RenderChunkBoundary;
+import org.enginehub.worldeditcui.util.Vector3;
 
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -39,6 +43,8 @@ import java.util.UUID;
 public class WorldEditCUI
 {
 	private final Map<UUID, Region> regions = new LinkedHashMap<>();
+	private final RegionIndex regionIndex = new RegionIndex();
+	private final List<Region> visibleRegions = new ArrayList<>(); // reused by every render
 	private Region selection, activeRegion;
 	private CUIDebug debugger;
 	private CUIConfiguration configuration;
@@ -107,6 +113,7 @@ public class WorldEditCUI
 	{
 		this.activeRegion = null;
 		this.regions.clear();
+		this.regionIndex.clear();
 	}
 	
 	public Region getSelection(boolean multi)
@@ -124,12 +131,21 @@ public class WorldEditCUI
 
 		if (region == null)
 		{
-			this.regions.remove(id);
+			Region removed = this.regions.remove(id);
+			if (removed != null)
+			{
+				this.regionIndex.remove(removed);
+			}
 			this.activeRegion = null;
 			return;
 		}
 		
-		this.regions.put(id, region);
+		Region replaced = this.regions.put(id, region);
+		if (replaced != null)
+		{
+			this.regionIndex.remove(replaced);
+		}
+		this.regionIndex.add(region);
 		this.activeRegion = region;
 	}
 
@@ -140,10 +156,13 @@ public class WorldEditCUI
 			this.selection.render(ctx);
 		}
 		
-		for (Region region : this.regions.values())
+		final Vector3 camera = ctx.cameraPos();
+		this.regionIndex.query(camera.getX(), camera.getY(), camera.getZ(), ctx.frustum(), this.configuration.getRenderDistance(), this.visibleRegions);
+		for (int i = 0, size = this.visibleRegions.size(); i < size; i++)
 		{
-			region.render(ctx);
+			this.visibleRegions.get(i).render(ctx);
 		}
+		this.visibleRegions.clear();
 		
 		if (this.chunkBorders)
 		{
@@ -81,6 +81,12 @@ public final class CUIConfiguration implements InitialisationFactory {
 	private boolean debugMode = false;
 	private boolean promiscuous = false;
 	private boolean clearAllOnKey = false;
+	private int renderDistance = 0;
+	private int lodDetailDistance = 128;
+	private int lodOutlineDistance = 512;
+	private int gridRange = 64;
+	private int gridLinePixels = 0;
+	private int eventTickBudget = 5;
 
     private Colour cuboidGridColor = ConfiguredColour.CUBOIDGRID.getDefault();
     private Colour cuboidEdgeColor = ConfiguredColour.CUBOIDBOX.getDefault();
@@ -143,6 +149,66 @@ public final class CUIConfiguration implements InitialisationFactory {
 		this.clearAllOnKey = clearAllOnKey;
 	}
 
+	/**
+	 * Get the distance beyond which regions are not drawn.
+	 *
+	 * @return the distance in blocks, or 0 for no limit
+	 */
+	public int getRenderDistance() {
+		return Math.max(this.renderDistance, 0);
+	}
+
+	/**
+	 * Get the distance beyond which grids, ellipsoid slices and cylinder
+	 * rings are no longer drawn.
+	 *
+	 * @return the distance in blocks, or 0 for no limit
+	 */
+	public int getLodDetailDistance() {
+		return Math.max(this.lodDetailDistance, 0);
+	}
+
+	/**
+	 * Get the distance beyond which regions are only drawn as a box.
+	 *
+	 * @return the distance in blocks, or 0 for no limit
+	 */
+	public int getLodOutlineDistance() {
+		return Math.max(this.lodOutlineDistance, 0);
+	}
+
+	/**
+	 * Get how far from the camera polygon and cylinder grids are drawn in
+	 * full. Layers further above or below the camera are left out, and
+	 * further grid lines, both layers and the lines across a cylinder, are
+	 * thinned out.
+	 *
+	 * @return the range in blocks, or 0 for no limit
+	 */
+	public int getGridRange() {
+		return Math.max(this.gridRange, 0);
+	}
+
+	/**
+	 * Get how close together grid lines of cuboids may be drawn on screen
+	 * before the grid is thinned out.
+	 *
+	 * @return the distance in pixels, or 0 to always draw every line
+	 */
+	public int getGridLinePixels() {
+		return Math.max(this.gridLinePixels, 0);
+	}
+
+	/**
+	 * Get how long events for multi-region selections may take to process
+	 * each tick. Any left over are processed on the following ticks.
+	 *
+	 * @return the time in milliseconds, or 0 for no limit
+	 */
+	public int getEventTickBudget() {
+		return Math.max(this.eventTickBudget, 0);
+	}
+
 	private static Path getConfigFile() {
 		return FabricLoader.getInstance().getConfigDir().resolve(CUIConfiguration.CONFIG_FILE_NAME);
 	}
@@ -168,6 +234,12 @@ public final class CUIConfiguration implements InitialisationFactory {
 		configArray.put("debugMode", config.debugMode);
 		configArray.put("promiscuous", config.promiscuous);
 		configArray.put("clearAllOnKey", config.clearAllOnKey);
+		configArray.put("renderDistance", config.renderDistance);
+		configArray.put("lodDetailDistance", config.lodDetailDistance);
+		configArray.put("lodOutlineDistance", config.lodOutlineDistance);
+		configArray.put("gridRange", config.gridRange);
+		configArray.put("gridLinePixels", config.gridLinePixels);
+		configArray.put("eventTickBudget", config.eventTickBudget);
 
 		configArray.put("cuboidGridColor", config.cuboidGridColor);
 		configArray.put("cuboidEdgeColor", config.cuboidEdgeColor);
@@ -203,6 +275,12 @@ public final class CUIConfiguration implements InitialisationFactory {
 		debugMode 				= (Boolean) configArray.get("debugMode");
 		promiscuous 			= (Boolean) configArray.get("promiscuous");
 		clearAllOnKey 			= (Boolean) configArray.get("clearAllOnKey");
+		renderDistance 			= (Integer) configArray.get("renderDistance");
+		lodDetailDistance 		= (Integer) configArray.get("lodDetailDistance");
+		lodOutlineDistance 		= (Integer) configArray.get("lodOutlineDistance");
+		gridRange 				= (Integer) configArray.get("gridRange");
+		gridLinePixels 			= (Integer) configArray.get("gridLinePixels");
+		eventTickBudget 		= (Integer) configArray.get("eventTickBudget");
 
 		cuboidGridColor 		= (Colour) 	configArray.get("cuboidGridColor");
 		cuboidEdgeColor 		= (Colour) 	configArray.get("cuboidEdgeColor");
@@ -224,6 +302,12 @@ public final class CUIConfiguration implements InitialisationFactory {
 	public Object getDefaultValue(String text) {
 		return switch (text) {
 			case "debugMode", "promiscuous", "clearAllOnKey" -> false;
+			case "renderDistance" -> 0;
+			case "lodDetailDistance" -> 128;
+			case "lodOutlineDistance" -> 512;
+			case "gridRange" -> 64;
+			case "gridLinePixels" -> 0;
+			case "eventTickBudget" -> 5;
 			case "cuboidGridColor" -> ConfiguredColour.CUBOIDGRID.getDefault();
 			case "cuboidEdgeColor" -> ConfiguredColour.CUBOIDBOX.getDefault();
 			case "cuboidFirstPointColor" -> ConfiguredColour.CUBOIDPOINT1.getDefault();
@@ -266,6 +350,12 @@ public final class CUIConfiguration implements InitialisationFactory {
 			case "debugMode" -> "worldeditcui.options.debugMode";
 			case "promiscuous" -> "worldeditcui.options.compat.spammy";
 			case "clearAllOnKey" -> "worldeditcui.options.extra.clearall";
+			case "renderDistance" -> "worldeditcui.options.extra.renderdistance";
+			case "lodDetailDistance" -> "worldeditcui.options.extra.loddetail";
+			case "lodOutlineDistance" -> "worldeditcui.options.extra.lodoutline";
+			case "gridRange" -> "worldeditcui.options.extra.gridrange";
+			case "gridLinePixels" -> "worldeditcui.options.extra.gridpixels";
+			case "eventTickBudget" -> "worldeditcui.options.extra.eventbudget";
 			case "cuboidGridColor" -> "worldeditcui.color.cuboidgrid";
 			case "cuboidEdgeColor" -> "worldeditcui.color.cuboidedge";
 			case "cuboidFirstPointColor" -> "worldeditcui.color.cuboidpoint1";
@@ -76,6 +76,17 @@ public final class CUIDebug implements InitialisationFactory
 		loggerImpl.addAppender(appender);
 	}
 	
+	/**
+	 * Get whether debug messages are shown, so callers can skip building
+	 * messages which would be thrown away.
+	 *
+	 * @return true if debug mode is enabled
+	 */
+	public boolean isDebugEnabled()
+	{
+		return this.controller.getConfiguration().isDebugMode();
+	}
+	
 	/**
 	 * Shows a message if debug mode is true.
 	 *
@@ -83,7 +94,7 @@ public final class CUIDebug implements InitialisationFactory
 	 */
 	public void debug(String message)
 	{
-		if (this.controller.getConfiguration().isDebugMode()) // TODO: do this with a filter and a MARKER, maybe eventually?
+		if (this.isDebugEnabled()) // TODO: do this with a filter and a MARKER, maybe eventually?
 		{
 			CUIDebug.LOGGER.info("Debug - {}", message);
 		}
@@ -9,7 +9,6 @@
  */
 package org.enginehub.worldeditcui.event;
 
-import com.google.common.base.Joiner;
 import org.enginehub.worldeditcui.WorldEditCUI;
 
 import java.util.List;
@@ -25,9 +24,11 @@ public abstract class CUIEvent
 	protected final WorldEditCUI controller;
 	protected final List<String> params;
 	protected final boolean multi;
+	private final CUIEventArgs args;
 	
 	public CUIEvent(CUIEventArgs args)
 	{
+		this.args = args;
 		this.controller = args.getController();
 		this.params = args.getParams();
 		this.multi = args.isMulti();
@@ -79,7 +80,7 @@ public abstract class CUIEvent
 		
 		if (!this.isValid())
 		{
-			String message = String.format("Invalid number of parameters. %s event requires %s parameters but received %s [%s]", this.getEventName(), this.getRequiredParameterString(), this.params.size(), Joiner.on(", ").join(this.params));
+			String message = String.format("Invalid number of parameters. %s event requires %s parameters but received %s [%s]", this.getEventName(), this.getRequiredParameterString(), this.params.size(), String.join(", ", this.params));
 			throw new IllegalArgumentException(message);
 		}
 	}
@@ -96,12 +97,12 @@ public abstract class CUIEvent
 
 	public int getInt(int index)
 	{
-		return (int)Float.parseFloat(this.params.get(index));
+		return this.args.getInt(index);
 	}
 	
 	public double getDouble(int index)
 	{
-		return Double.parseDouble(this.params.get(index));
+		return this.args.getDouble(index);
 	}
 	
 	public String getString(int index)
@@ -9,8 +9,8 @@
  */
 package org.enginehub.worldeditcui.event;
 
-import com.google.common.base.Joiner;
 import org.enginehub.worldeditcui.WorldEditCUI;
+import org.enginehub.worldeditcui.debug.CUIDebug;
 
 import java.util.List;
 
@@ -18,6 +18,9 @@ import java.util.List;
  * CUI communication event
  * Called when a CUI event is sent from the server.
  * 
+ * Numeric parameters are parsed once when the event is received, so events
+ * can read them as often as they like.
+ * 
  * @author lahwran
  * @author yetanotherx
  * @author Adam Mummery-Smith
@@ -28,6 +31,7 @@ public final class CUIEventArgs
 	private final boolean multi;
 	private final String type;
 	private final List<String> params;
+	private final double[] numbers; // NaN where the parameter isn't a number
 	
 	public CUIEventArgs(WorldEditCUI controller, boolean multi, String type, List<String> params)
 	{
@@ -41,7 +45,69 @@ public final class CUIEventArgs
 		}
 		
 		this.params = params;
-		this.controller.getDebugger().debug("CUI Event (" + type + ") - Params: " + Joiner.on(", ").join(params));
+		this.numbers = new double[params.size()];
+		for (int i = 0; i < this.numbers.length; i++)
+		{
+			this.numbers[i] = CUIEventArgs.parseNumber(params.get(i));
+		}
+		
+		final CUIDebug debugger = this.controller.getDebugger();
+		if (debugger.isDebugEnabled())
+		{
+			debugger.debug("CUI Event (" + type + ") - Params: " + String.join(", ", params));
+		}
+	}
+	
+	/**
+	 * Parse a parameter as a number. Whole numbers, which most coordinates
+	 * are, are read directly without going through the floating point
+	 * parser.
+	 * 
+	 * @param param the parameter
+	 * @return the value, or NaN if the parameter isn't a number
+	 */
+	private static double parseNumber(String param)
+	{
+		final int length = param.length();
+		final boolean negative = length > 0 && param.charAt(0) == '-';
+		int i = negative ? 1 : 0;
+		if (i < length && length - i <= 9) // fits in an int
+		{
+			int value = 0;
+			for (; i < length; i++)
+			{
+				final char c = param.charAt(i);
+				if (c < '0' || c > '9')
+				{
+					break;
+				}
+				value = value * 10 + (c - '0');
+			}
+			
+			if (i == length)
+			{
+				return negative ? -value : value;
+			}
+		}
+		
+		// avoid the cost of an exception for keys, ids and the like
+		for (i = 0; i < length; i++)
+		{
+			final char c = param.charAt(i);
+			if ((c < '0' || c > '9') && c != '.' && c != '-' && c != '+' && c != 'e' && c != 'E')
+			{
+				return Double.NaN;
+			}
+		}
+		
+		try
+		{
+			return length > 0 ? Double.parseDouble(param) : Double.NaN;
+		}
+		catch (NumberFormatException ex)
+		{
+			return Double.NaN;
+		}
 	}
 	
 	public WorldEditCUI getController()
@@ -54,6 +120,21 @@ public final class CUIEventArgs
 		return this.params;
 	}
 	
+	public double getDouble(int index)
+	{
+		final double value = this.numbers[index];
+		if (Double.isNaN(value))
+		{
+			throw new NumberFormatException("For input string: \"" + this.params.get(index) + "\"");
+		}
+		return value;
+	}
+	
+	public int getInt(int index)
+	{
+		return (int)this.getDouble(index);
+	}
+	
 	public String getType()
 	{
 		return this.type;
@@ -38,7 +38,10 @@ public class CUIEventDispatcher implements InitialisationFactory
 			final CUIEventType type = CUIEventType.named(eventArgs.getType());
 			if (type == null)
 			{
-				this.controller.getDebugger().debug("No such event " + eventArgs.getType());
+				if (this.controller.getDebugger().isDebugEnabled())
+				{
+					this.controller.getDebugger().debug("No such event " + eventArgs.getType());
+				}
 				return;
 			}
 			
@@ -54,7 +57,10 @@ public class CUIEventDispatcher implements InitialisationFactory
 		catch (Exception ex)
 		{
 			ex.printStackTrace();
-			this.controller.getDebugger().debug("Error raising event " + eventArgs.getType() + ": " + ex.getClass().getSimpleName() + " " + ex.getMessage());
+			if (this.controller.getDebugger().isDebugEnabled())
+			{
+				this.controller.getDebugger().debug("Error raising event " + eventArgs.getType() + ": " + ex.getClass().getSimpleName() + " " + ex.getMessage());
+			}
 		}
 	}
 
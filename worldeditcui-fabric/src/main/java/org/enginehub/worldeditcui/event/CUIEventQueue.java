@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2011-2024 WorldEditCUI team and contributors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.enginehub.worldeditcui.event;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects the CUI events received during a tick so they can be raised
+ * together, leaving out any which a later event makes redundant.
+ *
+ * <p>Events are keyed on the region they apply to, their type and the
+ * point they set. Only the last event for a key is raised, in the place of
+ * the first one. A selection event replaces its region, so it drops every
+ * event still queued for that region.</p>
+ *
+ * <p>Events for the primary selection are all raised on the next tick.
+ * Events for multi-region selections are raised in order until the tick's
+ * time budget runs out, and the rest wait for the following ticks.</p>
+ */
+public class CUIEventQueue
+{
+	/**
+	 * Region key for events on the primary selection
+	 */
+	private static final String PRIMARY = "";
+
+	/**
+	 * Region key for multi events before the queue has seen which region
+	 * is active
+	 */
+	private static final String ACTIVE = "*";
+
+	private static final class Entry
+	{
+		private CUIEventArgs event; // null once raised or dropped
+		private final String region;
+		private final String key;
+		private final long received = System.nanoTime();
+
+		Entry(CUIEventArgs event, String region, String key)
+		{
+			this.event = event;
+			this.region = region;
+			this.key = key;
+		}
+	}
+
+	private final ArrayDeque<Entry> primary = new ArrayDeque<>();
+	private final ArrayDeque<Entry> multi = new ArrayDeque<>();
+	private final Map<String, Entry> latest = new HashMap<>();
+	private String multiRegion = ACTIVE;
+	private int size;
+	private long lastLatency;
+	private long maxLatency;
+
+	public void add(CUIEventArgs event)
+	{
+		final CUIEventType type = CUIEventType.named(event.getType());
+		final List<String> params = event.getParams();
+
+		if (type == CUIEventType.SELECTION)
+		{
+			if (!event.isMulti())
+			{
+				this.discard(this.primary, PRIMARY);
+				this.append(event, PRIMARY, null);
+			}
+			else if (params.size() < 2)
+			{
+				// without a region id, this clears every multi region
+				this.discard(this.multi, null);
+				this.multiRegion = ACTIVE;
+				this.append(event, ACTIVE, null);
+			}
+			else
+			{
+				this.multiRegion = params.get(1);
+				this.discard(this.multi, this.multiRegion);
+				this.append(event, this.multiRegion, null);
+			}
+			return;
+		}
+
+		final String region = event.isMulti() ? this.multiRegion : PRIMARY;
+		if (type == CUIEventType.BULK_POINT || type == CUIEventType.BULK_POINT2D)
+		{
+			// a bulk event sets points too, so a later point event must not
+			// move back in front of it
+			this.forget(region, CUIEventType.POINT);
+			this.forget(region, CUIEventType.POINT2D);
+		}
+
+		final String point = type == null ? null : supersededBy(type, params);
+		if (point == null)
+		{
+			this.append(event, region, null);
+			return;
+		}
+
+		final String key = region + '\0' + type.getKey() + '\0' + point;
+		final Entry entry = this.latest.get(key);
+		if (entry != null && entry.event != null)
+		{
+			entry.event = event;
+			return;
+		}
+
+		this.latest.put(key, this.append(event, region, key));
+	}
+
+	/**
+	 * Get which part of a region an event sets, so that a later event
+	 * setting the same part replaces it.
+	 *
+	 * @return the point id, or null if the event always needs raising
+	 */
+	private static String supersededBy(CUIEventType type, List<String> params)
+	{
+		return switch (type)
+		{
+			case POINT, POINT2D, ELLIPSOID -> params.isEmpty() ? null : params.get(0);
+			case CYLINDER, MINMAX, COLOUR, GRID -> "";
+			default -> null; // polygon faces add up, and selections are handled separately
+		};
+	}
+
+	private Entry append(CUIEventArgs event, String region, String key)
+	{
+		final Entry entry = new Entry(event, region, key);
+		(event.isMulti() ? this.multi : this.primary).add(entry);
+		this.size++;
+		return entry;
+	}
+
+	/**
+	 * Stop later events of a type for a region from replacing those already
+	 * queued, so they are raised after anything queued in between.
+	 */
+	private void forget(String region, CUIEventType type)
+	{
+		final String prefix = region + '\0' + type.getKey() + '\0';
+		this.latest.keySet().removeIf(key -> key.startsWith(prefix));
+	}
+
+	/**
+	 * Drop queued events for a region, or every region if it is null.
+	 */
+	private void discard(ArrayDeque<Entry> queue, String region)
+	{
+		for (Entry entry : queue)
+		{
+			if (entry.event != null && (region == null || region.equals(entry.region)))
+			{
+				entry.event = null;
+				this.size--;
+			}
+		}
+	}
+
+	/**
+	 * Drop every queued event, for when the selections they apply to are
+	 * cleared.
+	 */
+	public void clear()
+	{
+		this.primary.clear();
+		this.multi.clear();
+		this.latest.clear();
+		this.multiRegion = ACTIVE;
+		this.size = 0;
+	}
+
+	public boolean isEmpty()
+	{
+		return this.size == 0;
+	}
+
+	/**
+	 * Get the number of events waiting to be raised.
+	 */
+	public int size()
+	{
+		return this.size;
+	}
+
+	/**
+	 * Get how long the last event raised had been queued for.
+	 *
+	 * @return the time in nanoseconds
+	 */
+	public long getLastLatency()
+	{
+		return this.lastLatency;
+	}
+
+	/**
+	 * Get the longest any event raised so far had been queued for.
+	 *
+	 * @return the time in nanoseconds
+	 */
+	public long getMaxLatency()
+	{
+		return this.maxLatency;
+	}
+
+	/**
+	 * Raise queued events in the order they were received. Every event for
+	 * the primary selection is raised, followed by multi-region events until
+	 * the budget is spent.
+	 *
+	 * @param budgetMillis the time multi-region events may take, or 0 for no limit
+	 * @return the number of events raised
+	 */
+	public int drain(CUIEventDispatcher dispatcher, int budgetMillis)
+	{
+		int raised = this.raise(dispatcher, this.primary, Long.MAX_VALUE);
+		final long deadline = budgetMillis > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMillis) : Long.MAX_VALUE;
+		raised += this.raise(dispatcher, this.multi, deadline);
+
+		if (this.size == 0)
+		{
+			this.primary.clear();
+			this.multi.clear();
+			this.latest.clear();
+		}
+		return raised;
+	}
+
+	private int raise(CUIEventDispatcher dispatcher, ArrayDeque<Entry> queue, long deadline)
+	{
+		int raised = 0;
+		while (!queue.isEmpty())
+		{
+			final Entry entry = queue.poll();
+			if (entry.key != null)
+			{
+				this.latest.remove(entry.key, entry);
+			}
+			if (entry.event == null)
+			{
+				continue;
+			}
+
+			final CUIEventArgs event = entry.event;
+			entry.event = null;
+			this.size--;
+			this.lastLatency = System.nanoTime() - entry.received;
+			this.maxLatency = Math.max(this.maxLatency, this.lastLatency);
+			dispatcher.raiseEvent(event);
+			raised++;
+
+			// always raise at least one, so the queue can't stall
+			if (deadline != Long.MAX_VALUE && System.nanoTime() >= deadline)
+			{
+				break;
+			}
+		}
+		return raised;
+	}
+}
@@ -9,7 +9,11 @@
  */
 package org.enginehub.worldeditcui.event;
 
+import org.enginehub.worldeditcui.event.cui.CUIEventBatch;
 import org.enginehub.worldeditcui.event.cui.CUIEventBounds;
+import org.enginehub.worldeditcui.event.cui.CUIEventBulkPoint2D;
+import org.enginehub.worldeditcui.event.cui.CUIEventBulkPoint3D;
+import org.enginehub.worldeditcui.event.cui.CUIEventBulkPolygon;
 import org.enginehub.worldeditcui.event.cui.CUIEventColour;
 import org.enginehub.worldeditcui.event.cui.CUIEventCylinder;
 import org.enginehub.worldeditcui.event.cui.CUIEventEllipsoid;
@@ -41,7 +45,11 @@ public enum CUIEventType
 	UPDATE(CUIEventUpdate::new, "Update", "u", 1),
 	POLYGON(CUIEventPolygon::new, "Polygon", "poly", 3, 99),
 	COLOUR(CUIEventColour::new, "Colour", "col", 4),
-	GRID(CUIEventGrid::new, "Grid", "grid", 1, 2);
+	GRID(CUIEventGrid::new, "Grid", "grid", 1, 2),
+	BULK_POINT(CUIEventBulkPoint3D::new, "BulkPoint3D", "pb", 4, Integer.MAX_VALUE),
+	BULK_POINT2D(CUIEventBulkPoint2D::new, "BulkPoint2D", "p2b", 3, Integer.MAX_VALUE),
+	BULK_POLYGON(CUIEventBulkPolygon::new, "BulkPolygon", "polyb", 4, Integer.MAX_VALUE),
+	BATCH(CUIEventBatch::new, "Batch", "batch", 1);
 
 
 	private final Function<CUIEventArgs, CUIEvent> maker;
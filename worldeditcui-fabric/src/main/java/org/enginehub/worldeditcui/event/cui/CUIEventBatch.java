@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2011-2024 WorldEditCUI team and contributors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.enginehub.worldeditcui.event.cui;
+
+import org.enginehub.worldeditcui.event.CUIEvent;
+import org.enginehub.worldeditcui.event.CUIEventArgs;
+import org.enginehub.worldeditcui.event.CUIEventType;
+import org.enginehub.worldeditcui.render.region.Region;
+
+/**
+ * Called when the server starts or finishes sending a selection in several
+ * events, so that it is only rebuilt once all of them have arrived
+ */
+public class CUIEventBatch extends CUIEvent
+{
+	public CUIEventBatch(CUIEventArgs args)
+	{
+		super(args);
+	}
+	
+	@Override
+	public CUIEventType getEventType()
+	{
+		return CUIEventType.BATCH;
+	}
+	
+	@Override
+	public String raise()
+	{
+		Region selection = this.controller.getSelection(this.multi);
+		if (selection == null)
+		{
+			this.controller.getDebugger().debug("No active multi selection.");
+			return null;
+		}
+		
+		String action = this.getString(0);
+		if ("begin".equalsIgnoreCase(action))
+		{
+			selection.beginBatch();
+		}
+		else if ("commit".equalsIgnoreCase(action))
+		{
+			selection.commitBatch();
+		}
+		else
+		{
+			throw new IllegalArgumentException("Unknown batch action " + action);
+		}
+		
+		return null;
+	}
+}
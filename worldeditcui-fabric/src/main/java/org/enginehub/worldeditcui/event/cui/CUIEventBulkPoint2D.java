@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2011-2024 WorldEditCUI team and contributors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.enginehub.worldeditcui.event.cui;
+
+import org.enginehub.worldeditcui.event.CUIEvent;
+import org.enginehub.worldeditcui.event.CUIEventArgs;
+import org.enginehub.worldeditcui.event.CUIEventType;
+import org.enginehub.worldeditcui.render.region.Region;
+
+/**
+ * Called when many poly points are sent in one event, as a list of id, x
+ * and z for each point
+ */
+public class CUIEventBulkPoint2D extends CUIEvent
+{
+	private static final int POINT_PARAMS = 3;
+	
+	public CUIEventBulkPoint2D(CUIEventArgs args)
+	{
+		super(args);
+	}
+	
+	@Override
+	public CUIEventType getEventType()
+	{
+		return CUIEventType.BULK_POINT2D;
+	}
+	
+	@Override
+	public boolean isValid()
+	{
+		return super.isValid() && this.params.size() % POINT_PARAMS == 0;
+	}
+	
+	@Override
+	public String raise()
+	{
+		Region selection = this.controller.getSelection(this.multi);
+		if (selection == null)
+		{
+			this.controller.getDebugger().debug("No active multi selection.");
+			return null;
+		}
+		
+		for (int i = 0; i < this.params.size(); i += POINT_PARAMS)
+		{
+			selection.setPolygonPoint(this.getInt(i), this.getInt(i + 1), this.getInt(i + 2));
+		}
+		
+		if (this.controller.getDebugger().isDebugEnabled())
+		{
+			this.controller.getDebugger().debug("Setting " + this.params.size() / POINT_PARAMS + " point2ds");
+		}
+		
+		return null;
+	}
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2011-2024 WorldEditCUI team and contributors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.enginehub.worldeditcui.event.cui;
+
+import org.enginehub.worldeditcui.event.CUIEvent;
+import org.enginehub.worldeditcui.event.CUIEventArgs;
+import org.enginehub.worldeditcui.event.CUIEventType;
+import org.enginehub.worldeditcui.render.region.Region;
+
+/**
+ * Called when many polygons are sent in one event, each as its vertex
+ * count followed by the vertex ids
+ */
+public class CUIEventBulkPolygon extends CUIEvent
+{
+	public CUIEventBulkPolygon(CUIEventArgs args)
+	{
+		super(args);
+	}
+	
+	@Override
+	public CUIEventType getEventType()
+	{
+		return CUIEventType.BULK_POLYGON;
+	}
+	
+	@Override
+	public String raise()
+	{
+		Region selection = this.controller.getSelection(this.multi);
+		if (selection == null)
+		{
+			this.controller.getDebugger().debug("No active multi selection.");
+			return null;
+		}
+		
+		int faces = 0;
+		for (int i = 0; i < this.params.size(); faces++)
+		{
+			final int count = this.getInt(i++);
+			if (count < 3 || i + count > this.params.size())
+			{
+				throw new IllegalArgumentException("Polygon " + faces + " has an invalid vertex count " + count);
+			}
+			
+			final int[] vertexIds = new int[count];
+			for (int j = 0; j < count; j++)
+			{
+				vertexIds[j] = this.getInt(i++);
+			}
+			selection.addPolygon(vertexIds);
+		}
+		
+		if (this.controller.getDebugger().isDebugEnabled())
+		{
+			this.controller.getDebugger().debug("Adding " + faces + " polygons");
+		}
+		
+		return null;
+	}
+}
@@ -50,7 +50,10 @@ public class CUIEventPoint2D extends CUIEventPoint3D
 		int regionSize = this.getInt(3);
 		selection.setPolygonPoint(id, x, z);
 		
-		this.controller.getDebugger().debug("Setting point2d #" + id);
+		if (this.controller.getDebugger().isDebugEnabled())
+		{
+			this.controller.getDebugger().debug("Setting point2d #" + id);
+		}
 		
 		return null;
 	}
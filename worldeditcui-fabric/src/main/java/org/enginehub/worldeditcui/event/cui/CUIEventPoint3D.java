@@ -56,7 +56,10 @@ public class CUIEventPoint3D extends CUIEvent
 			double hitDistance = mc.player.getAttributeValue(Attributes.BLOCK_INTERACTION_RANGE);
 			
 			selection.setCuboidVertexLatch(id, entity, Math.min(Math.max(this.getDouble(4), hitDistance), 256.0));
-			this.controller.getDebugger().debug("Setting vertex latch #" + id);
+			if (this.controller.getDebugger().isDebugEnabled())
+			{
+				this.controller.getDebugger().debug("Setting vertex latch #" + id);
+			}
 			return null;
 		}
 		
@@ -65,7 +68,10 @@ public class CUIEventPoint3D extends CUIEvent
 		double z = this.getDouble(3);
 		
 		selection.setCuboidPoint(id, x, y, z);
-		this.controller.getDebugger().debug("Setting point #" + id);
+		if (this.controller.getDebugger().isDebugEnabled())
+		{
+			this.controller.getDebugger().debug("Setting point #" + id);
+		}
 		
 		return null;
 	}
@@ -11,10 +11,12 @@ package org.enginehub.worldeditcui.event.listeners;
 
 import org.enginehub.worldeditcui.WorldEditCUI;
 import org.enginehub.worldeditcui.event.CUIEventArgs;
+import org.enginehub.worldeditcui.event.CUIEventQueue;
 import org.enginehub.worldeditcui.protocol.CUIPacket;
 
 /**
- * Listener class for incoming plugin channel messages
+ * Listener class for incoming plugin channel messages. Events are queued as
+ * they arrive and raised once per tick.
  * 
  * @author lahwran
  * @author yetanotherx
@@ -23,6 +25,7 @@ import org.enginehub.worldeditcui.protocol.CUIPacket;
 public class CUIListenerChannel
 {
 	private WorldEditCUI controller;
+	private final CUIEventQueue queue = new CUIEventQueue();
 	
 	public CUIListenerChannel(WorldEditCUI controller)
 	{
@@ -31,16 +34,42 @@ public class CUIListenerChannel
 	
 	public void onMessage(final CUIPacket message)
 	{
-		this.controller.getDebugger().debug("Received CUI event from server: " + message);
+		if (this.controller.getDebugger().isDebugEnabled())
+		{
+			this.controller.getDebugger().debug("Received CUI event from server: " + message);
+		}
 		
 		try
 		{
 			CUIEventArgs eventArgs = new CUIEventArgs(this.controller, message.multi(), message.eventType(), message.args());
-			this.controller.getDispatcher().raiseEvent(eventArgs);
+			this.queue.add(eventArgs);
 		}
 		catch (Exception ex)
 		{
 //			ex.printStackTrace();
 		}
 	}
+	
+	/**
+	 * Drop any events not yet raised, such as when the world changes.
+	 */
+	public void clear()
+	{
+		this.queue.clear();
+	}
+
+	public void onTick()
+	{
+		if (this.queue.isEmpty())
+		{
+			return;
+		}
+		
+		final int raised = this.queue.drain(this.controller.getDispatcher(), this.controller.getConfiguration().getEventTickBudget());
+		if (!this.queue.isEmpty() && this.controller.getDebugger().isDebugEnabled())
+		{
+			this.controller.getDebugger().debug(String.format("Raised %d CUI events, %d deferred to the next tick (waited %.1f ms, longest %.1f ms)",
+					raised, this.queue.size(), this.queue.getLastLatency() / 1.0E6, this.queue.getMaxLatency() / 1.0E6));
+		}
+	}
 }
@@ -14,17 +14,20 @@ import com.mojang.blaze3d.opengl.GlConst;
 import com.mojang.blaze3d.opengl.GlStateManager;
 import com.mojang.blaze3d.platform.DestFactor;
 import com.mojang.blaze3d.platform.SourceFactor;
+import com.mojang.blaze3d.platform.Window;
 import com.mojang.blaze3d.systems.RenderSystem;
+import net.minecraft.client.Camera;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.renderer.fog.FogRenderer;
 import net.minecraft.util.profiling.Profiler;
 import net.minecraft.util.profiling.ProfilerFiller;
 import org.enginehub.worldeditcui.WorldEditCUI;
 import org.enginehub.worldeditcui.render.BufferBuilderRenderSink;
+import org.enginehub.worldeditcui.render.DrawCommandQueue;
 import org.enginehub.worldeditcui.render.LineStyle;
 import org.enginehub.worldeditcui.render.PipelineProvider;
 import org.enginehub.worldeditcui.render.RenderSink;
-import org.enginehub.worldeditcui.util.Vector3;
+import org.enginehub.worldeditcui.util.Vector3m;
 import org.joml.Matrix4fStack;
 import org.lwjgl.opengl.GL32;
 
@@ -46,6 +49,8 @@ public class CUIListenerWorldRender
 	private final List<PipelineProvider> pipelines;
 	private int currentPipelineIdx;
 	private RenderSink sink;
+	private final Vector3m cameraPos = new Vector3m();
+	private int lastSubmittedDrawCalls, lastMergedDrawCalls;
 
 	public CUIListenerWorldRender(final WorldEditCUI controller, final Minecraft minecraft, final List<PipelineProvider> pipelines)
 	{
@@ -85,10 +90,32 @@ public class CUIListenerWorldRender
 	private void invalidatePipeline() {
 		if (this.currentPipelineIdx < this.pipelines.size() - 1) {
 			this.currentPipelineIdx++;
+			if (this.sink != null)
+			{
+				try
+				{
+					this.sink.close();
+				}
+				catch (final Exception ex)
+				{
+					this.controller.getDebugger().error("Failed to release resources of the previous pipeline", ex);
+				}
+			}
 			this.sink = null;
 		}
 	}
 
+	private void logDrawCalls()
+	{
+		if (this.sink instanceof DrawCommandQueue queue && this.controller.getDebugger().isDebugEnabled()
+				&& (queue.submittedDrawCalls() != this.lastSubmittedDrawCalls || queue.mergedDrawCalls() != this.lastMergedDrawCalls))
+		{
+			this.lastSubmittedDrawCalls = queue.submittedDrawCalls();
+			this.lastMergedDrawCalls = queue.mergedDrawCalls();
+			this.controller.getDebugger().debug("Draw calls per frame: " + this.lastSubmittedDrawCalls + " submitted, " + this.lastMergedDrawCalls + " after merging");
+		}
+	}
+
 	public void onRender(final float partialTicks) {
 		try {
 			final RenderSink sink = this.providePipeline();
@@ -99,7 +126,11 @@ public class CUIListenerWorldRender
 			}
 			final ProfilerFiller profiler = Profiler.get();
 			profiler.push("worldeditcui");
-			this.ctx.init(new Vector3(this.minecraft.gameRenderer.getMainCamera().position()), partialTicks, sink);
+			final Camera camera = this.minecraft.gameRenderer.getMainCamera();
+			final Window window = this.minecraft.getWindow();
+			this.ctx.frustum().update(camera.getLookVector(), camera.getUpVector(), camera.getLeftVector(),
+					this.minecraft.options.fov().get(), window.getWidth(), window.getHeight());
+			this.ctx.init(this.cameraPos.set(camera.position()), partialTicks, sink);
 			final GpuBufferSlice fogStart = RenderSystem.getShaderFog();
 			RenderSystem.setShaderFog(this.minecraft.gameRenderer.fogRenderer.getBuffer(FogRenderer.FogMode.NONE));
 			final Matrix4fStack poseStack = RenderSystem.getModelViewStack();
@@ -119,9 +150,12 @@ public class CUIListenerWorldRender
 			try {
 				this.controller.renderSelections(this.ctx);
 				this.sink.flush();
+				this.logDrawCalls();
 			} catch (final Exception e) {
 				this.controller.getDebugger().error("Error while attempting to render WorldEdit CUI", e);
 				this.invalidatePipeline();
+			} finally {
+				this.ctx.reset();
 			}
 
 			GlStateManager._depthFunc(GL32.GL_LEQUAL);
@@ -11,10 +11,13 @@ package org.enginehub.worldeditcui.event.listeners;
 
 import com.mojang.blaze3d.systems.RenderSystem;
 import org.enginehub.worldeditcui.config.Colour;
+import org.enginehub.worldeditcui.render.CompiledGeometry;
 import org.enginehub.worldeditcui.render.LineStyle;
 import org.enginehub.worldeditcui.render.RenderSink;
 import org.enginehub.worldeditcui.render.RenderStyle;
+import org.enginehub.worldeditcui.render.ViewFrustum;
 import org.enginehub.worldeditcui.util.Vector3;
+import org.jetbrains.annotations.Nullable;
 import org.joml.Matrix4fStack;
 
 import java.util.function.Consumer;
@@ -27,11 +30,23 @@ public final class CUIRenderContext implements RenderSink {
     private Vector3 cameraPos;
     private float dt;
     private RenderSink delegateSink;
+    private final ViewFrustum frustum = new ViewFrustum();
+    private final CompiledGeometry shape = new CompiledGeometry();
+    private @Nullable RenderSink shapeTarget;
 
     public Vector3 cameraPos() {
         return this.cameraPos;
     }
 
+    /**
+     * Get the frustum visible from the camera this frame.
+     *
+     * @return the view frustum
+     */
+    public ViewFrustum frustum() {
+        return this.frustum;
+    }
+
     public Matrix4fStack matrixStack() {
         return RenderSystem.getModelViewStack();
     }
@@ -54,6 +69,73 @@ public final class CUIRenderContext implements RenderSink {
         }
     }
 
+    /**
+     * Perform an action with all render operations redirected to another sink.
+     *
+     * @param sink the sink to render into
+     * @param action the action to perform
+     */
+    public void withSink(final RenderSink sink, final Consumer<CUIRenderContext> action) {
+        final RenderSink oldSink = this.delegateSink;
+        this.delegateSink = sink;
+        try {
+            action.accept(this);
+        } finally {
+            this.delegateSink = oldSink;
+        }
+    }
+
+    /**
+     * Begin recording the positions of a shape, so they only have to be
+     * generated once however many line styles the shape is drawn with.
+     *
+     * <p>Until {@link #endShape(RenderStyle)}, operations are recorded
+     * rather than drawn, and no line style should be applied.</p>
+     */
+    public void beginShape() {
+        if (this.shapeTarget != null) {
+            throw new IllegalStateException("Tried to begin a shape while already recording one");
+        }
+        this.shapeTarget = this.delegateSink;
+        this.delegateSink = this.shape.resetUnstyled();
+    }
+
+    /**
+     * Finish recording a shape, and draw it once for each line of a style.
+     *
+     * @param style the style to draw the shape with
+     */
+    public void endShape(final RenderStyle style) {
+        this.endShape(style, 1f);
+    }
+
+    /**
+     * Finish recording a shape, and draw it once for each line of a style.
+     *
+     * @param style the style to draw the shape with
+     * @param tint a factor for the alpha of each line's colour
+     */
+    public void endShape(final RenderStyle style, final float tint) {
+        if (this.shapeTarget == null) {
+            throw new IllegalStateException("Tried to end a shape when none was being recorded");
+        }
+        this.delegateSink = this.shapeTarget;
+        this.shapeTarget = null;
+        this.shape.replayStyled(this, style, tint);
+    }
+
+    /**
+     * Abandon the shape being recorded, if any, such as when drawing it
+     * failed. The sink in use before the shape is restored by
+     * {@link #withSink(RenderSink, Consumer)}.
+     */
+    public void abortShape() {
+        if (this.shapeTarget != null) {
+            this.shapeTarget = null;
+            this.shape.abort();
+        }
+    }
+
     void init(final Vector3 cameraPos, final float dt, final RenderSink sink) {
         this.cameraPos = cameraPos;
         this.dt = dt;
@@ -66,6 +148,7 @@ public final class CUIRenderContext implements RenderSink {
     void reset() {
         this.cameraPos = null;
         this.delegateSink = null;
+        this.abortShape();
     }
 
     // RenderSink delegation
@@ -133,4 +216,9 @@ public final class CUIRenderContext implements RenderSink {
     public void flush() {
         this.delegateSink.flush();
     }
+
+    @Override
+    public void draw(final CompiledGeometry geometry, final double dx, final double dy, final double dz, final ViewFrustum frustum) {
+        this.delegateSink.draw(geometry, dx, dy, dz, frustum);
+    }
 }
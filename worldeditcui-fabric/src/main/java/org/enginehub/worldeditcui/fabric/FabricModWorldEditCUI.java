@@ -32,6 +32,7 @@ import org.enginehub.worldeditcui.protocol.CUIPacket;
 import org.enginehub.worldeditcui.protocol.CUIPacketHandler;
 import org.enginehub.worldeditcui.render.OptifinePipelineProvider;
 import org.enginehub.worldeditcui.render.PipelineProvider;
+import org.enginehub.worldeditcui.render.RetainedPipelineProvider;
 import org.enginehub.worldeditcui.render.VanillaPipelineProvider;
 import org.lwjgl.glfw.GLFW;
 import org.spongepowered.asm.mixin.MixinEnvironment;
@@ -58,6 +59,8 @@ public final class FabricModWorldEditCUI implements ModInitializer {
 
     private static final List<PipelineProvider> RENDER_PIPELINES = List.of(
             new OptifinePipelineProvider(),
+            new RetainedPipelineProvider(true),
+            new RetainedPipelineProvider(),
             new VanillaPipelineProvider()
     );
 
@@ -148,6 +151,9 @@ public final class FabricModWorldEditCUI implements ModInitializer {
 
                 this.controller.getDebugger().debug("World change detected, sending new handshake");
                 this.controller.clear();
+                if (this.channelListener != null) {
+                    this.channelListener.clear();
+                }
                 this.helo(mc.getConnection());
                 this.delayedHelo = FabricModWorldEditCUI.DELAYED_HELO_TICKS;
                 if (mc.player != null && config.isPromiscuous()) {
@@ -162,6 +168,10 @@ public final class FabricModWorldEditCUI implements ModInitializer {
                 }
             }
         }
+
+        if (this.channelListener != null) {
+            this.channelListener.onTick();
+        }
     }
 
     private void onPluginMessage(final CUIPacket payload, final CUIPacketHandler.PacketContext ctx) {
@@ -192,7 +202,8 @@ public final class FabricModWorldEditCUI implements ModInitializer {
     }
 
     private void helo(final ClientPacketListener handler) {
-        CUINetworking.send(new CUIPacket("v", CUIPacket.protocolVersion()));
+        // the extra token tells servers that bulk events and batches are understood, older ones ignore it
+        CUINetworking.send(new CUIPacket("v", CUIPacket.protocolVersion(), "batch"));
     }
 
     public WorldEditCUI getController()
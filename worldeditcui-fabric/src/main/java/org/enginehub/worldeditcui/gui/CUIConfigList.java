@@ -57,6 +57,8 @@ public class CUIConfigList extends ContainerObjectSelectionList<CUIConfigList.Co
                 list.addEntry(list.new OnOffEntry(key));
             } else if (value instanceof Colour) {
                 list.addEntry(list.new ColorConfigEntry(key));
+            } else if (value instanceof Integer) {
+                list.addEntry(list.new NumberConfigEntry(key));
             } else {
                 LOGGER.warn("WorldEditCUI has option {} with unknown data type {}", key, value == null ? "NULL" : value.getClass().getName());
             }
@@ -180,6 +182,57 @@ public class CUIConfigList extends ContainerObjectSelectionList<CUIConfigList.Co
         }
     }
 
+    public class NumberConfigEntry extends ConfigEntry {
+        private final EditBox textField;
+
+        public NumberConfigEntry(String tag) {
+            super(tag);
+
+            Integer value = (Integer)configuration.getConfigArray().get(tag);
+            textField = new EditBox(CUIConfigList.this.minecraft.font, 0, 0, BUTTON_WIDTH, BUTTON_HEIGHT, Component.literal(value.toString()));
+            textField.setMaxLength(6);
+            textField.setValue(value.toString());
+            textField.setResponder(updated -> {
+                if (!updated.isEmpty()) {
+                    configuration.changeValue(tag, Integer.parseInt(updated));
+                }
+            });
+            textField.setFilter(input -> {
+                for (int i = 0; i < input.length(); i++) { // non-negative whole numbers only
+                    final char c = input.charAt(i);
+                    if (c < '0' || c > '9') {
+                        return false;
+                    }
+                }
+
+                return true;
+            });
+        }
+
+        @Override
+        public @NotNull List<? extends GuiEventListener> children() {
+            return ImmutableList.of(this.resetButton, this.textField);
+        }
+
+        @Override
+        public @NotNull List<? extends NarratableEntry> narratables() {
+            return ImmutableList.of(this.resetButton, this.textField);
+        }
+
+        @Override
+        protected void updateFromConfig() {
+            this.textField.setValue(configuration.getConfigArray().get(tag).toString());
+        }
+
+        @Override
+        public void renderContent(GuiGraphics gfx, int mouseX, int mouseY, boolean isMouseOver, float partialTick) {
+            super.renderContent(gfx, mouseX, mouseY, isMouseOver, partialTick);
+            this.textField.setX(getRowLeft() + 105);
+            this.textField.setY(getY());
+            this.textField.render(gfx, mouseX, mouseY, partialTick);
+        }
+    }
+
     public abstract class ConfigEntry extends ContainerObjectSelectionList.Entry<ConfigEntry> {
         protected final String tag;
         protected final Button resetButton;
@@ -35,6 +35,7 @@ public class BufferBuilderRenderSink implements RenderSink {
     private float loopX, loopY, loopZ; // track previous vertices for lines_loop
     private float loopFirstX, loopFirstY, loopFirstZ; // track initial vertices for lines_loop
     private boolean canLoop;
+    private final Vector3f normal = new Vector3f(); // reused, only valid until the next call to computeNormal
 
     // line state
     private float lastLineWidth = -1;
@@ -157,9 +158,8 @@ public class BufferBuilderRenderSink implements RenderSink {
         final double dY = (y1 - y0);
         final double dZ = (z1 - z0);
         final double length = Math.sqrt(dX * dX + dY * dY + dZ * dZ);
-        final Vector3f normal = new Vector3f((float) (dX / length), (float) (dY / length), (float) (dZ / length));
         // normal.transform(RenderSystem.getModelViewStack().last().normal());
-        return normal;
+        return this.normal.set((float) (dX / length), (float) (dY / length), (float) (dZ / length));
     }
 
     @Override
@@ -0,0 +1,545 @@
+/*
+ * Copyright (c) 2011-2024 WorldEditCUI team and contributors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.enginehub.worldeditcui.render;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * A sink that records the geometry emitted into it so that it can be replayed
+ * later without re-running the shape code which generated it.
+ *
+ * <p>Vertices are stored relative to the <em>origin</em> the geometry was
+ * compiled at (the camera position at the time), so replaying at a different
+ * camera position only needs the offset between the two.</p>
+ *
+ * <p>Geometry is stored as a sequence of batches, each with a single mode,
+ * line style and colour. Adjacent batches of lines or quads which share all
+ * of those are merged while recording.</p>
+ *
+ * <p>The bounds of each batch are tracked as well, so that replaying can
+ * skip whatever is outside the view frustum.</p>
+ */
+public final class CompiledGeometry implements RenderSink {
+    static final byte MODE_LINE_LOOP = 0;
+    static final byte MODE_LINES = 1;
+    static final byte MODE_QUADS = 2;
+
+    // stands in for the real line styles while only positions are recorded
+    private static final LineStyle UNSTYLED = new LineStyle(RenderStyle.RenderType.ANY, LineStyle.DEFAULT_WIDTH, 255, 255, 255);
+
+    private static final int INITIAL_BATCHES = 16;
+    private static final int INITIAL_VERTICES = 256;
+
+    // batch data, indexed by batch
+    private byte[] modes = new byte[INITIAL_BATCHES];
+    private LineStyle[] lines = new LineStyle[INITIAL_BATCHES];
+    private RenderStyle.RenderType[] types = new RenderStyle.RenderType[INITIAL_BATCHES];
+    private float[] colours = new float[INITIAL_BATCHES * 4];
+    private int[] offsets = new int[INITIAL_BATCHES + 1]; // first vertex of each batch, offsets[batchCount] is the end
+    private float[] bounds = new float[INITIAL_BATCHES * 6]; // min xyz then max xyz, relative to the origin
+    private int batchCount;
+    private float minX, minY, minZ, maxX, maxY, maxZ;
+
+    // vertex data, three floats per vertex
+    private float[] vertices = new float[INITIAL_VERTICES * 3];
+    private int vertexCount;
+
+    private double originX, originY, originZ;
+    private int revision;
+
+    // recording state
+    private LineStyle line;
+    private RenderStyle.RenderType type;
+    private float r = -1f, g, b, a;
+    private byte mode = -1;
+
+    /**
+     * Discard any recorded geometry and begin recording relative to a new origin.
+     *
+     * @param originX the x coordinate of the origin
+     * @param originY the y coordinate of the origin
+     * @param originZ the z coordinate of the origin
+     */
+    public void reset(final double originX, final double originY, final double originZ) {
+        if (this.mode != -1) {
+            throw new IllegalStateException("Tried to reset while still recording");
+        }
+        Arrays.fill(this.lines, 0, this.batchCount, null);
+        Arrays.fill(this.types, 0, this.batchCount, null);
+        this.batchCount = 0;
+        this.vertexCount = 0;
+        this.minX = this.minY = this.minZ = Float.POSITIVE_INFINITY;
+        this.maxX = this.maxY = this.maxZ = Float.NEGATIVE_INFINITY;
+        this.originX = originX;
+        this.originY = originY;
+        this.originZ = originZ;
+        this.revision++;
+    }
+
+    /**
+     * Stop recording part way through an operation and discard all recorded
+     * geometry, such as when whatever was drawing into this failed.
+     */
+    public void abort() {
+        this.mode = -1;
+        this.reset(this.originX, this.originY, this.originZ);
+    }
+
+    /**
+     * Discard any recorded geometry and begin recording only the positions
+     * of a shape, to be drawn later with {@link #replayStyled}.
+     *
+     * @return this
+     */
+    public CompiledGeometry resetUnstyled() {
+        this.reset(0, 0, 0);
+        this.apply(UNSTYLED, RenderStyle.RenderType.ANY);
+        this.setColour(1f, 1f, 1f, 1f);
+        return this;
+    }
+
+    public double originX() {
+        return this.originX;
+    }
+
+    public double originY() {
+        return this.originY;
+    }
+
+    public double originZ() {
+        return this.originZ;
+    }
+
+    // bounds of all recorded vertices relative to the origin, only meaningful when not empty
+
+    public float minX() {
+        return this.minX;
+    }
+
+    public float minY() {
+        return this.minY;
+    }
+
+    public float minZ() {
+        return this.minZ;
+    }
+
+    public float maxX() {
+        return this.maxX;
+    }
+
+    public float maxY() {
+        return this.maxY;
+    }
+
+    public float maxZ() {
+        return this.maxZ;
+    }
+
+    public boolean isEmpty() {
+        return this.batchCount == 0;
+    }
+
+    public int batchCount() {
+        return this.batchCount;
+    }
+
+    public int vertexCount() {
+        return this.vertexCount;
+    }
+
+    /**
+     * Get whether any of this geometry may be visible.
+     *
+     * @param frustum the view frustum
+     * @param dx the x offset the geometry would be drawn at
+     * @param dy the y offset the geometry would be drawn at
+     * @param dz the z offset the geometry would be drawn at
+     * @return true if the bounds of the geometry intersect the frustum
+     */
+    public boolean isVisible(final ViewFrustum frustum, final double dx, final double dy, final double dz) {
+        return this.batchCount > 0
+                && frustum.isVisible(this.minX + dx, this.minY + dy, this.minZ + dz, this.maxX + dx, this.maxY + dy, this.maxZ + dz);
+    }
+
+    /**
+     * A counter which changes every time this geometry is reset, so that
+     * consumers caching derived data can tell when it is out of date.
+     *
+     * @return the revision
+     */
+    public int revision() {
+        return this.revision;
+    }
+
+    byte mode(final int batch) {
+        return this.modes[batch];
+    }
+
+    LineStyle line(final int batch) {
+        return this.lines[batch];
+    }
+
+    RenderStyle.RenderType type(final int batch) {
+        return this.types[batch];
+    }
+
+    float red(final int batch) {
+        return this.colours[batch * 4];
+    }
+
+    float green(final int batch) {
+        return this.colours[batch * 4 + 1];
+    }
+
+    float blue(final int batch) {
+        return this.colours[batch * 4 + 2];
+    }
+
+    float alpha(final int batch) {
+        return this.colours[batch * 4 + 3];
+    }
+
+    int firstVertex(final int batch) {
+        return this.offsets[batch];
+    }
+
+    int endVertex(final int batch) {
+        return this.offsets[batch + 1];
+    }
+
+    float[] vertices() {
+        return this.vertices;
+    }
+
+    /**
+     * Replay the recorded geometry into another sink.
+     *
+     * <p>The offset is added to every recorded vertex, and is normally the
+     * origin of this geometry minus the current camera position.</p>
+     *
+     * @param sink the sink to draw into
+     * @param dx the x offset
+     * @param dy the y offset
+     * @param dz the z offset
+     */
+    public void replay(final RenderSink sink, final double dx, final double dy, final double dz) {
+        this.replay(sink, dx, dy, dz, null);
+    }
+
+    /**
+     * Replay the recorded geometry into another sink, skipping any batches
+     * and individual lines or quads which are outside the view frustum.
+     *
+     * @param sink the sink to draw into
+     * @param dx the x offset
+     * @param dy the y offset
+     * @param dz the z offset
+     * @param frustum the frustum to cull against, or null to draw everything
+     */
+    public void replay(final RenderSink sink, final double dx, final double dy, final double dz, final @Nullable ViewFrustum frustum) {
+        LineStyle appliedLine = null;
+        RenderStyle.RenderType appliedType = null;
+        boolean applicable = false;
+        final float[] vertices = this.vertices;
+        final float[] bounds = this.bounds;
+        for (int batch = 0; batch < this.batchCount; batch++) {
+            boolean partial = false;
+            if (frustum != null) {
+                final int b = batch * 6;
+                final double minX = bounds[b] + dx, minY = bounds[b + 1] + dy, minZ = bounds[b + 2] + dz;
+                final double maxX = bounds[b + 3] + dx, maxY = bounds[b + 4] + dy, maxZ = bounds[b + 5] + dz;
+                if (!frustum.isVisible(minX, minY, minZ, maxX, maxY, maxZ)) {
+                    continue;
+                }
+                partial = !frustum.contains(minX, minY, minZ, maxX, maxY, maxZ);
+            }
+
+            if (this.lines[batch] != appliedLine || this.types[batch] != appliedType) {
+                appliedLine = this.lines[batch];
+                appliedType = this.types[batch];
+                applicable = sink.apply(appliedLine, appliedType);
+            }
+            if (!applicable) {
+                continue;
+            }
+
+            final int colour = batch * 4;
+            sink.color(this.colours[colour], this.colours[colour + 1], this.colours[colour + 2], this.colours[colour + 3]);
+            final byte mode = this.modes[batch];
+            final int start = this.offsets[batch] * 3, end = this.offsets[batch + 1] * 3;
+            if (!partial || mode == MODE_LINE_LOOP) {
+                begin(sink, mode);
+                for (int i = start; i < end; i += 3) {
+                    sink.vertex(vertices[i] + dx, vertices[i + 1] + dy, vertices[i + 2] + dz);
+                }
+                end(sink, mode);
+            } else {
+                replayCulled(sink, mode, start, end, dx, dy, dz, frustum);
+            }
+        }
+    }
+
+    /**
+     * Replay geometry recorded after {@link #resetUnstyled()} once for each
+     * line of a style, with that line's colour, depth test and width.
+     *
+     * @param sink the sink to draw into
+     * @param style the style to draw with
+     * @param tint a factor for the alpha of each line's colour
+     */
+    public void replayStyled(final RenderSink sink, final RenderStyle style, final float tint) {
+        if (this.batchCount == 0) {
+            return;
+        }
+
+        final float[] vertices = this.vertices;
+        for (final LineStyle line : style.getLines()) {
+            if (!sink.apply(line, style.getRenderType())) {
+                continue;
+            }
+
+            sink.color(line, tint);
+            for (int batch = 0; batch < this.batchCount; batch++) {
+                final byte mode = this.modes[batch];
+                begin(sink, mode);
+                for (int i = this.offsets[batch] * 3, end = this.offsets[batch + 1] * 3; i < end; i += 3) {
+                    sink.vertex(vertices[i], vertices[i + 1], vertices[i + 2]);
+                }
+                end(sink, mode);
+            }
+        }
+    }
+
+    private void replayCulled(final RenderSink sink, final byte mode, final int start, final int end,
+                              final double dx, final double dy, final double dz, final ViewFrustum frustum) {
+        final float[] vertices = this.vertices;
+        final int stride = mode == MODE_QUADS ? 12 : 6;
+        boolean begun = false;
+        for (int i = start; i + stride <= end; i += stride) {
+            double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY, minZ = Double.POSITIVE_INFINITY;
+            double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY, maxZ = Double.NEGATIVE_INFINITY;
+            for (int j = i; j < i + stride; j += 3) {
+                minX = Math.min(minX, vertices[j]);
+                minY = Math.min(minY, vertices[j + 1]);
+                minZ = Math.min(minZ, vertices[j + 2]);
+                maxX = Math.max(maxX, vertices[j]);
+                maxY = Math.max(maxY, vertices[j + 1]);
+                maxZ = Math.max(maxZ, vertices[j + 2]);
+            }
+            if (!frustum.isVisible(minX + dx, minY + dy, minZ + dz, maxX + dx, maxY + dy, maxZ + dz)) {
+                continue;
+            }
+
+            // only begin once something is visible, sinks don't expect empty batches
+            if (!begun) {
+                begin(sink, mode);
+                begun = true;
+            }
+            for (int j = i; j < i + stride; j += 3) {
+                sink.vertex(vertices[j] + dx, vertices[j + 1] + dy, vertices[j + 2] + dz);
+            }
+        }
+        if (begun) {
+            end(sink, mode);
+        }
+    }
+
+    private static void begin(final RenderSink sink, final byte mode) {
+        switch (mode) {
+            case MODE_LINE_LOOP -> sink.beginLineLoop();
+            case MODE_LINES -> sink.beginLines();
+            case MODE_QUADS -> sink.beginQuads();
+            default -> throw new IllegalStateException("Unknown mode " + mode);
+        }
+    }
+
+    private static void end(final RenderSink sink, final byte mode) {
+        switch (mode) {
+            case MODE_LINE_LOOP -> sink.endLineLoop();
+            case MODE_LINES -> sink.endLines();
+            case MODE_QUADS -> sink.endQuads();
+            default -> throw new IllegalStateException("Unknown mode " + mode);
+        }
+    }
+
+    // Recording
+
+    @Override
+    public RenderSink color(final float r, final float g, final float b, final float alpha) {
+        if (this.mode != -1 && this.mode != MODE_LINE_LOOP && !this.sameColour(r, g, b, alpha)) {
+            // split the batch so the new colour only applies to vertices from here on
+            final byte mode = this.mode;
+            this.endBatch(mode);
+            this.setColour(r, g, b, alpha);
+            this.beginBatch(mode);
+            return this;
+        }
+        this.setColour(r, g, b, alpha);
+        return this;
+    }
+
+    private void setColour(final float r, final float g, final float b, final float alpha) {
+        this.r = r;
+        this.g = g;
+        this.b = b;
+        this.a = alpha;
+    }
+
+    private boolean sameColour(final float r, final float g, final float b, final float alpha) {
+        return this.r == r && this.g == g && this.b == b && this.a == alpha;
+    }
+
+    @Override
+    public boolean apply(final LineStyle line, final RenderStyle.RenderType type) {
+        if (line.renderType.matches(type)) {
+            this.line = line;
+            this.type = type;
+            return true;
+        }
+
+        return false;
+    }
+
+    @Override
+    public RenderSink vertex(final double x, final double y, final double z) {
+        if (this.r == -1f) {
+            throw new IllegalStateException("No colour has been set!");
+        }
+        if (this.mode == -1) {
+            throw new IllegalStateException("Tried to record a vertex when not active");
+        }
+
+        final int index = this.vertexCount * 3;
+        if (index + 3 > this.vertices.length) {
+            this.vertices = Arrays.copyOf(this.vertices, this.vertices.length * 2);
+        }
+        final float fx = (float) x, fy = (float) y, fz = (float) z;
+        this.vertices[index] = fx;
+        this.vertices[index + 1] = fy;
+        this.vertices[index + 2] = fz;
+        this.vertexCount++;
+
+        final float[] bounds = this.bounds;
+        final int b = this.batchCount * 6;
+        bounds[b] = Math.min(bounds[b], fx);
+        bounds[b + 1] = Math.min(bounds[b + 1], fy);
+        bounds[b + 2] = Math.min(bounds[b + 2], fz);
+        bounds[b + 3] = Math.max(bounds[b + 3], fx);
+        bounds[b + 4] = Math.max(bounds[b + 4], fy);
+        bounds[b + 5] = Math.max(bounds[b + 5], fz);
+        this.minX = Math.min(this.minX, fx);
+        this.minY = Math.min(this.minY, fy);
+        this.minZ = Math.min(this.minZ, fz);
+        this.maxX = Math.max(this.maxX, fx);
+        this.maxY = Math.max(this.maxY, fy);
+        this.maxZ = Math.max(this.maxZ, fz);
+        return this;
+    }
+
+    @Override
+    public RenderSink beginLineLoop() {
+        this.beginBatch(MODE_LINE_LOOP);
+        return this;
+    }
+
+    @Override
+    public RenderSink endLineLoop() {
+        this.endBatch(MODE_LINE_LOOP);
+        return this;
+    }
+
+    @Override
+    public RenderSink beginLines() {
+        this.beginBatch(MODE_LINES);
+        return this;
+    }
+
+    @Override
+    public RenderSink endLines() {
+        this.endBatch(MODE_LINES);
+        return this;
+    }
+
+    @Override
+    public RenderSink beginQuads() {
+        this.beginBatch(MODE_QUADS);
+        return this;
+    }
+
+    @Override
+    public RenderSink endQuads() {
+        this.endBatch(MODE_QUADS);
+        return this;
+    }
+
+    @Override
+    public void flush() {
+        // nothing is drawn while recording
+    }
+
+    private void beginBatch(final byte mode) {
+        if (this.mode != -1) {
+            throw new IllegalStateException("Tried to enter new state before previous operation had been completed");
+        }
+        if (this.line == null) {
+            throw new IllegalStateException("A line style must be applied before recording");
+        }
+        this.mode = mode;
+
+        if (mode != MODE_LINE_LOOP && this.batchCount > 0) {
+            // continue the previous batch if nothing but the vertices would change
+            final int last = this.batchCount - 1;
+            final int colour = last * 4;
+            if (this.modes[last] == mode && this.lines[last] == this.line && this.types[last] == this.type
+                    && this.colours[colour] == this.r && this.colours[colour + 1] == this.g
+                    && this.colours[colour + 2] == this.b && this.colours[colour + 3] == this.a) {
+                this.batchCount--;
+                return;
+            }
+        }
+
+        if (this.batchCount + 1 >= this.modes.length) {
+            final int capacity = this.modes.length * 2;
+            this.modes = Arrays.copyOf(this.modes, capacity);
+            this.lines = Arrays.copyOf(this.lines, capacity);
+            this.types = Arrays.copyOf(this.types, capacity);
+            this.colours = Arrays.copyOf(this.colours, capacity * 4);
+            this.offsets = Arrays.copyOf(this.offsets, capacity + 1);
+            this.bounds = Arrays.copyOf(this.bounds, capacity * 6);
+        }
+
+        final int batch = this.batchCount;
+        this.modes[batch] = mode;
+        this.lines[batch] = this.line;
+        this.types[batch] = this.type;
+        this.colours[batch * 4] = this.r;
+        this.colours[batch * 4 + 1] = this.g;
+        this.colours[batch * 4 + 2] = this.b;
+        this.colours[batch * 4 + 3] = this.a;
+        this.offsets[batch] = this.vertexCount;
+        Arrays.fill(this.bounds, batch * 6, batch * 6 + 3, Float.POSITIVE_INFINITY);
+        Arrays.fill(this.bounds, batch * 6 + 3, batch * 6 + 6, Float.NEGATIVE_INFINITY);
+    }
+
+    private void endBatch(final byte mode) {
+        if (this.mode != mode) {
+            throw new IllegalStateException("Expected to end state " + mode + " but was in " + this.mode);
+        }
+        this.mode = -1;
+        if (this.offsets[this.batchCount] == this.vertexCount) {
+            return; // nothing was recorded, discard the batch
+        }
+        this.batchCount++;
+        this.offsets[this.batchCount] = this.vertexCount;
+    }
+}
@@ -153,10 +153,10 @@ public enum ConfiguredColour
 		this.hidden = new LineStyle(
 				RenderType.HIDDEN,
 				LineStyle.DEFAULT_WIDTH,
-				Math.round(this.colour.red() * 0.75f),
-				Math.round(this.colour.green() * 0.75F),
-				Math.round(this.colour.blue() * 0.75F),
-				Math.round(this.colour.alpha() * 0.25F));
+				Math.round(this.colour.red() * LineStyle.HIDDEN_COLOUR_SCALE),
+				Math.round(this.colour.green() * LineStyle.HIDDEN_COLOUR_SCALE),
+				Math.round(this.colour.blue() * LineStyle.HIDDEN_COLOUR_SCALE),
+				Math.round(this.colour.alpha() * LineStyle.HIDDEN_ALPHA_SCALE));
 		this.normal = new LineStyle(
 				RenderType.VISIBLE,
 				LineStyle.DEFAULT_WIDTH,
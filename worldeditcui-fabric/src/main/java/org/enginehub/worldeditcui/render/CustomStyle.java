@@ -57,10 +57,10 @@ public class CustomStyle implements RenderStyle
 		this.lines[0] = new LineStyle(
 			RenderType.HIDDEN,
 			LineStyle.DEFAULT_WIDTH,
-			Math.round(colour.red() * 0.75F),
-			Math.round(colour.green() * 0.75F),
-			Math.round(colour.blue() * 0.75F),
-			Math.round(colour.alpha() * 0.25F)
+			Math.round(colour.red() * LineStyle.HIDDEN_COLOUR_SCALE),
+			Math.round(colour.green() * LineStyle.HIDDEN_COLOUR_SCALE),
+			Math.round(colour.blue() * LineStyle.HIDDEN_COLOUR_SCALE),
+			Math.round(colour.alpha() * LineStyle.HIDDEN_ALPHA_SCALE)
 		);
 		this.lines[1] =	new LineStyle(
 			RenderType.VISIBLE,
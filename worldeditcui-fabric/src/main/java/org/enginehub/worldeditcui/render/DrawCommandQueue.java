@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2011-2024 WorldEditCUI team and contributors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.enginehub.worldeditcui.render;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A sink which queues everything drawn into it until it is flushed, then
+ * submits it to another sink sorted by render state.
+ *
+ * <p>Operations are grouped by mode, depth function and line width, so a
+ * frame only needs one draw call for each combination of those rather than
+ * one every time the state changes in submission order.</p>
+ */
+public final class DrawCommandQueue implements RenderSink {
+    // quads first so grid faces stay behind lines, then hidden lines before visible ones
+    private static final Comparator<Bucket> ORDER = Comparator.<Bucket>comparingInt(bucket -> bucket.quads ? 0 : 1)
+            .thenComparingInt(bucket -> bucket.depth == RenderStyle.RenderType.HIDDEN ? 0 : bucket.depth == RenderStyle.RenderType.VISIBLE ? 1 : 2)
+            .thenComparingDouble(bucket -> bucket.lineWidth);
+
+    private final RenderSink delegate;
+    private final List<Bucket> buckets = new ArrayList<>();
+
+    // recording state
+    private @Nullable LineStyle line;
+    private RenderStyle.RenderType type;
+    private @Nullable Bucket active;
+    private float r = -1f, g, b, a;
+
+    // tracking of the state changes the unsorted commands would have caused
+    private float lastLineWidth = -1;
+    private RenderStyle.RenderType lastDepth;
+    private int lastMode = -1;
+    private int submitted;
+
+    private int lastSubmittedDrawCalls;
+    private int lastMergedDrawCalls;
+
+    private static final class Bucket {
+        private final boolean quads;
+        private final RenderStyle.RenderType depth;
+        private final float lineWidth;
+        private final CompiledGeometry geometry = new CompiledGeometry();
+
+        Bucket(final boolean quads, final RenderStyle.RenderType depth, final float lineWidth) {
+            this.quads = quads;
+            this.depth = depth;
+            this.lineWidth = lineWidth;
+        }
+    }
+
+    public DrawCommandQueue(final RenderSink delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Get the number of draw calls the last flushed frame would have needed
+     * if its operations had been submitted in the order they were received.
+     *
+     * @return the draw call count before merging
+     */
+    public int submittedDrawCalls() {
+        return this.lastSubmittedDrawCalls;
+    }
+
+    /**
+     * Get the number of draw calls the last flushed frame was submitted with.
+     *
+     * @return the draw call count after merging
+     */
+    public int mergedDrawCalls() {
+        return this.lastMergedDrawCalls;
+    }
+
+    @Override
+    public RenderSink color(final float r, final float g, final float b, final float alpha) {
+        this.r = r;
+        this.g = g;
+        this.b = b;
+        this.a = alpha;
+        if (this.active != null) {
+            this.active.geometry.color(r, g, b, alpha);
+        }
+        return this;
+    }
+
+    @Override
+    public boolean apply(final LineStyle line, final RenderStyle.RenderType type) {
+        if (!line.renderType.matches(type)) {
+            return false;
+        }
+
+        this.line = line;
+        this.type = type;
+        if (line.lineWidth != this.lastLineWidth || line.renderType != this.lastDepth) {
+            this.lastLineWidth = line.lineWidth;
+            this.lastDepth = line.renderType;
+            this.lastMode = -1; // the unsorted sink would flush here
+        }
+        return true;
+    }
+
+    @Override
+    public RenderSink vertex(final double x, final double y, final double z) {
+        if (this.active == null) {
+            throw new IllegalStateException("Tried to draw when not active");
+        }
+        this.active.geometry.vertex(x, y, z);
+        return this;
+    }
+
+    @Override
+    public RenderSink beginLineLoop() {
+        this.begin(false).beginLineLoop();
+        return this;
+    }
+
+    @Override
+    public RenderSink endLineLoop() {
+        this.end().endLineLoop();
+        return this;
+    }
+
+    @Override
+    public RenderSink beginLines() {
+        this.begin(false).beginLines();
+        return this;
+    }
+
+    @Override
+    public RenderSink endLines() {
+        this.end().endLines();
+        return this;
+    }
+
+    @Override
+    public RenderSink beginQuads() {
+        this.begin(true).beginQuads();
+        return this;
+    }
+
+    @Override
+    public RenderSink endQuads() {
+        this.end().endQuads();
+        return this;
+    }
+
+    private CompiledGeometry begin(final boolean quads) {
+        if (this.active != null) {
+            throw new IllegalStateException("Tried to enter new state before previous operation had been completed");
+        }
+        if (this.line == null) {
+            throw new IllegalStateException("A line style must be applied before drawing");
+        }
+
+        final int mode = quads ? 1 : 0;
+        if (mode != this.lastMode) {
+            this.lastMode = mode;
+            this.submitted++;
+        }
+
+        final Bucket bucket = this.bucket(quads, this.line.renderType, this.line.lineWidth);
+        bucket.geometry.apply(this.line, this.type);
+        bucket.geometry.color(this.r, this.g, this.b, this.a);
+        this.active = bucket;
+        return bucket.geometry;
+    }
+
+    private CompiledGeometry end() {
+        if (this.active == null) {
+            throw new IllegalStateException("Could not end operation, was not active");
+        }
+        final CompiledGeometry geometry = this.active.geometry;
+        this.active = null;
+        return geometry;
+    }
+
+    private Bucket bucket(final boolean quads, final RenderStyle.RenderType depth, final float lineWidth) {
+        for (int i = 0, size = this.buckets.size(); i < size; i++) {
+            final Bucket bucket = this.buckets.get(i);
+            if (bucket.quads == quads && bucket.depth == depth && bucket.lineWidth == lineWidth) {
+                return bucket;
+            }
+        }
+
+        final Bucket bucket = new Bucket(quads, depth, lineWidth);
+        bucket.geometry.reset(0, 0, 0);
+        this.buckets.add(bucket);
+        return bucket;
+    }
+
+    @Override
+    public void flush() {
+        if (this.active != null) {
+            throw new IllegalStateException("Tried to flush while still active");
+        }
+
+        this.buckets.sort(ORDER);
+        int merged = 0;
+        for (int i = 0, size = this.buckets.size(); i < size; i++) {
+            final CompiledGeometry geometry = this.buckets.get(i).geometry;
+            if (!geometry.isEmpty()) {
+                geometry.replay(this.delegate, 0, 0, 0);
+                merged++;
+            }
+            geometry.reset(0, 0, 0);
+        }
+        this.delegate.flush();
+
+        this.lastSubmittedDrawCalls = this.submitted;
+        this.lastMergedDrawCalls = merged;
+        this.submitted = 0;
+        this.lastLineWidth = -1;
+        this.lastDepth = null;
+        this.lastMode = -1;
+    }
+
+    @Override
+    public void close() {
+        this.delegate.close();
+    }
+}
@@ -21,6 +21,13 @@ import org.enginehub.worldeditcui.render.RenderStyle.RenderType;
 public class LineStyle
 {
 	public static final float DEFAULT_WIDTH = 3.0f;
+	
+	/**
+	 * How much hidden lines are darkened and faded compared to visible ones.
+	 * The depth compare line shader applies the same factors.
+	 */
+	public static final float HIDDEN_COLOUR_SCALE = 0.75F;
+	public static final float HIDDEN_ALPHA_SCALE = 0.25F;
 
 	public final float lineWidth;
 	public final int red, green, blue, alpha;
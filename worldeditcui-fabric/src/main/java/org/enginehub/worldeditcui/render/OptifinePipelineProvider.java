@@ -135,7 +135,7 @@ public final class OptifinePipelineProvider implements PipelineProvider {
      */
     @Override
     public RenderSink provide() {
-        return new BufferBuilderRenderSink(
+        return new DrawCommandQueue(new BufferBuilderRenderSink(
                 OptifineTypeFactory.INSTANCE, // optifine doesn't use the vanilla shader system?
                 () -> {
                     if (!this.available()) {
@@ -167,6 +167,6 @@ public final class OptifinePipelineProvider implements PipelineProvider {
                         LOGGER.error("Failed to render WECUI using OptiFine hooks", thr);
                     }
                 }
-        );
+        ));
     }
 }
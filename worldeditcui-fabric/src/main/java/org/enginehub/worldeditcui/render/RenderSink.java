@@ -120,5 +120,31 @@ public interface RenderSink {
      */
     void flush();
 
+    /**
+     * Draw previously compiled geometry.
+     *
+     * <p>The offset is added to every vertex of the geometry. Sinks which
+     * are able to keep geometry resident on the GPU may override this to
+     * avoid submitting the vertices again on every frame.</p>
+     *
+     * <p>By default, lines and quads outside the frustum are skipped.</p>
+     *
+     * @param geometry the geometry to draw
+     * @param dx the x offset
+     * @param dy the y offset
+     * @param dz the z offset
+     * @param frustum the current view frustum
+     */
+    default void draw(final CompiledGeometry geometry, final double dx, final double dy, final double dz, final ViewFrustum frustum) {
+        geometry.replay(this, dx, dy, dz, frustum);
+    }
 
+    /**
+     * Release any resources held by this sink, once it will no longer be
+     * rendered to.
+     *
+     * <p>By default, this is a no-op.</p>
+     */
+    default void close() {
+    }
 }
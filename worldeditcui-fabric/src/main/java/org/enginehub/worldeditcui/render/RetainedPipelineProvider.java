@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2011-2024 WorldEditCUI team and contributors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.enginehub.worldeditcui.render;
+
+import com.mojang.blaze3d.pipeline.BlendFunction;
+import com.mojang.blaze3d.pipeline.RenderPipeline;
+import com.mojang.blaze3d.platform.DepthTestFunction;
+import com.mojang.blaze3d.shaders.UniformType;
+import com.mojang.blaze3d.vertex.DefaultVertexFormat;
+import com.mojang.blaze3d.vertex.VertexFormat;
+import com.mojang.blaze3d.vertex.VertexFormatElement;
+import net.minecraft.client.renderer.RenderPipelines;
+import net.minecraft.resources.Identifier;
+
+/**
+ * A pipeline which keeps compiled region geometry in GPU buffers, only
+ * uploading it again when the geometry changes.
+ *
+ * <p>Unlike the other pipelines, the depth test is part of each pipeline
+ * here rather than being set on the GL state directly.</p>
+ */
+public final class RetainedPipelineProvider implements PipelineProvider {
+    /**
+     * Vertex format for extruded lines, with the colour and width left to
+     * the {@code WecuiLineStyle} uniform.
+     */
+    static final VertexFormat LINE_FORMAT = VertexFormat.builder()
+            .add("Position", VertexFormatElement.POSITION)
+            .add("Normal", VertexFormatElement.NORMAL)
+            .padding(1)
+            .build();
+
+    private static final RenderPipeline.Snippet QUADS_SNIPPET = RenderPipeline.builder(RenderPipelines.MATRICES_PROJECTION_SNIPPET)
+            .withVertexShader("core/position_color")
+            .withFragmentShader("core/position_color")
+            .withBlend(BlendFunction.TRANSLUCENT)
+            .withCull(false)
+            .withVertexFormat(DefaultVertexFormat.POSITION_COLOR, VertexFormat.Mode.QUADS)
+            .buildSnippet();
+
+    // indexed by RenderStyle.RenderType ordinal
+    private static final RenderPipeline[] QUADS = {
+            pipeline(QUADS_SNIPPET, "quads_any", DepthTestFunction.NO_DEPTH_TEST),
+            pipeline(QUADS_SNIPPET, "quads_hidden", DepthTestFunction.GREATER_DEPTH_TEST),
+            pipeline(QUADS_SNIPPET, "quads_visible", DepthTestFunction.LESS_DEPTH_TEST)
+    };
+    private static final RenderPipeline.Snippet LINES_SNIPPET = RenderPipeline.builder(RenderPipelines.LINES_SNIPPET)
+            .withVertexShader(Identifier.fromNamespaceAndPath("worldeditcui", "core/batch_lines"))
+            .withUniform("WecuiLineStyle", UniformType.UNIFORM_BUFFER)
+            .withVertexFormat(LINE_FORMAT, VertexFormat.Mode.LINES)
+            .buildSnippet();
+    private static final RenderPipeline[] LINES = {
+            pipeline(LINES_SNIPPET, "lines_any", DepthTestFunction.NO_DEPTH_TEST),
+            pipeline(LINES_SNIPPET, "lines_hidden", DepthTestFunction.GREATER_DEPTH_TEST),
+            pipeline(LINES_SNIPPET, "lines_visible", DepthTestFunction.LESS_DEPTH_TEST)
+    };
+
+    // draws lines once, picking the hidden or visible colour per fragment from the scene depth
+    private static final RenderPipeline DEPTH_COMPARE_LINES = RenderPipeline.builder(LINES_SNIPPET)
+            .withLocation("pipeline/wecui_retained_lines_depth_compare")
+            .withFragmentShader(Identifier.fromNamespaceAndPath("worldeditcui", "core/depth_compare_lines"))
+            .withSampler("DepthSampler")
+            .withDepthTestFunction(DepthTestFunction.NO_DEPTH_TEST)
+            .withDepthWrite(false)
+            .build();
+
+    private final boolean singlePass;
+
+    public RetainedPipelineProvider() {
+        this(false);
+    }
+
+    /**
+     * Create a provider for retained geometry.
+     *
+     * @param singlePass whether to draw hidden and visible lines in one pass with a depth comparing shader
+     */
+    public RetainedPipelineProvider(final boolean singlePass) {
+        this.singlePass = singlePass;
+    }
+
+    private static RenderPipeline pipeline(final RenderPipeline.Snippet snippet, final String name, final DepthTestFunction depthTest) {
+        return RenderPipeline.builder(snippet)
+                .withLocation("pipeline/wecui_retained_" + name)
+                .withDepthTestFunction(depthTest)
+                .build();
+    }
+
+    static RenderPipeline quads(final RenderStyle.RenderType type) {
+        return QUADS[type.ordinal()];
+    }
+
+    static RenderPipeline lines(final RenderStyle.RenderType type) {
+        return LINES[type.ordinal()];
+    }
+
+    static RenderPipeline depthCompareLines() {
+        return DEPTH_COMPARE_LINES;
+    }
+
+    @Override
+    public String id() {
+        return this.singlePass ? "retained_single_pass" : "retained";
+    }
+
+    @Override
+    public boolean available() {
+        return true;
+    }
+
+    @Override
+    public RenderSink provide() {
+        return new RetainedRenderSink(this.singlePass);
+    }
+}
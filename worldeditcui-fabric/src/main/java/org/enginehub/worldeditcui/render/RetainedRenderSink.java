@@ -0,0 +1,583 @@
+/*
+ * Copyright (c) 2011-2024 WorldEditCUI team and contributors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.enginehub.worldeditcui.render;
+
+import com.mojang.blaze3d.buffers.GpuBuffer;
+import com.mojang.blaze3d.buffers.GpuBufferSlice;
+import com.mojang.blaze3d.buffers.Std140SizeCalculator;
+import com.mojang.blaze3d.pipeline.RenderTarget;
+import com.mojang.blaze3d.systems.RenderPass;
+import com.mojang.blaze3d.textures.FilterMode;
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.mojang.blaze3d.vertex.BufferBuilder;
+import com.mojang.blaze3d.vertex.ByteBufferBuilder;
+import com.mojang.blaze3d.vertex.DefaultVertexFormat;
+import com.mojang.blaze3d.vertex.MeshData;
+import com.mojang.blaze3d.vertex.VertexFormat;
+import net.minecraft.client.Minecraft;
+import net.minecraft.util.Mth;
+import org.jetbrains.annotations.Nullable;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+import org.joml.Vector4f;
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A render sink which keeps compiled geometry in persistent GPU buffers.
+ *
+ * <p>Geometry passed to {@link #draw(CompiledGeometry, double, double, double, ViewFrustum)}
+ * is uploaded once, and drawn on later frames with only a model-view
+ * translation for the camera offset. Geometry drawn through the immediate
+ * methods is recorded and uploaded when the sink is flushed.</p>
+ *
+ * <p>In single pass mode, lines which are drawn both hidden and visible
+ * are only uploaded once, and drawn without a depth test by a shader which
+ * compares against the scene depth to pick the colour for each
+ * fragment. The depth can't be read while it is being drawn to, so these
+ * lines are collected from every mesh and drawn together in one pass when
+ * the sink is flushed.</p>
+ *
+ * <p>Lines only store a position and direction per vertex. Their
+ * colour and width are the same for a whole batch, so each batch is drawn
+ * separately with those passed as uniforms. The uniforms for every batch are
+ * written to a buffer alongside the geometry, so drawing a mesh writes
+ * nothing new.</p>
+ */
+public class RetainedRenderSink implements RenderSink {
+    private static final long EVICT_AFTER_NANOS = TimeUnit.SECONDS.toNanos(5);
+    private static final int INITIAL_BUFFER_SIZE = 256 * 1024;
+
+    private static final RenderStyle.RenderType[] TYPES = RenderStyle.RenderType.values();
+    // quads are drawn before lines, so the faces of a grid end up behind its lines
+    private static final int COMPARE_BUCKET = TYPES.length * 2;
+    private static final int BUCKETS = COMPARE_BUCKET + 1;
+    private static final int DRAW_SIZE = 3; // bucket, first index and index count
+    private static final int STYLE_SIZE = 5; // colour and width
+    private static final int LINE_STYLE_UBO_SIZE = new Std140SizeCalculator().putVec4().putFloat().get();
+
+    private static final Vector4f WHITE = new Vector4f(1f, 1f, 1f, 1f);
+    private static final Vector3f NO_OFFSET = new Vector3f();
+    private static final Matrix4f IDENTITY = new Matrix4f();
+
+    private final CompiledGeometry immediate = new CompiledGeometry();
+    private final Mesh immediateMesh = new Mesh();
+    private final Map<CompiledGeometry, Mesh> meshes = new IdentityHashMap<>();
+    private final ByteBufferBuilder buffer = new ByteBufferBuilder(INITIAL_BUFFER_SIZE);
+    private final ByteBufferBuilder styleData = new ByteBufferBuilder(LINE_STYLE_UBO_SIZE * 64);
+    private final Matrix4f modelView = new Matrix4f();
+    private final GpuBuffer[] indexBuffers = new GpuBuffer[BUCKETS];
+    private final VertexFormat.IndexType[] indexTypes = new VertexFormat.IndexType[BUCKETS];
+    private final boolean singlePass;
+    private long lastEviction = System.nanoTime();
+    // meshes with depth compared lines this frame, with the transforms they were drawn at
+    private Mesh[] compared = new Mesh[8];
+    private GpuBufferSlice[] comparedTransforms = new GpuBufferSlice[8];
+    private int comparedCount;
+
+    private static final class Mesh {
+        private final GpuBuffer[] vertices = new GpuBuffer[BUCKETS];
+        private final int[] indexCounts = new int[BUCKETS];
+        // one draw per line batch in the extruded buckets
+        private int[] draws = new int[DRAW_SIZE * 8];
+        private float[] styles = new float[STYLE_SIZE * 8];
+        private int drawCount;
+        private @Nullable GpuBuffer styleBuffer;
+        private GpuBufferSlice[] styleSlices = new GpuBufferSlice[8]; // the uniforms for each draw
+        private int styleSliceCount; // slices which are valid for the current style buffer
+        private int revision = -1;
+        private long lastUsed;
+
+        void addDraw(final int bucket, final int firstIndex, final int indexCount, final CompiledGeometry geometry, final int batch) {
+            if (this.drawCount * DRAW_SIZE == this.draws.length) {
+                this.draws = Arrays.copyOf(this.draws, this.draws.length * 2);
+                this.styles = Arrays.copyOf(this.styles, this.styles.length * 2);
+            }
+
+            final int draw = this.drawCount * DRAW_SIZE;
+            this.draws[draw] = bucket;
+            this.draws[draw + 1] = firstIndex;
+            this.draws[draw + 2] = indexCount;
+            final int style = this.drawCount * STYLE_SIZE;
+            this.styles[style] = geometry.red(batch);
+            this.styles[style + 1] = geometry.green(batch);
+            this.styles[style + 2] = geometry.blue(batch);
+            this.styles[style + 3] = geometry.alpha(batch);
+            this.styles[style + 4] = geometry.line(batch).lineWidth;
+            this.drawCount++;
+        }
+
+        void close() {
+            for (int i = 0; i < BUCKETS; i++) {
+                if (this.vertices[i] != null) {
+                    this.vertices[i].close();
+                    this.vertices[i] = null;
+                }
+                this.indexCounts[i] = 0;
+            }
+            if (this.styleBuffer != null) {
+                this.styleBuffer.close();
+                this.styleBuffer = null;
+            }
+            this.drawCount = 0;
+            this.styleSliceCount = 0;
+        }
+    }
+
+    public RetainedRenderSink() {
+        this(false);
+    }
+
+    public RetainedRenderSink(final boolean singlePass) {
+        this.singlePass = singlePass;
+    }
+
+    @Override
+    public RenderSink color(final float r, final float g, final float b, final float alpha) {
+        this.immediate.color(r, g, b, alpha);
+        return this;
+    }
+
+    @Override
+    public boolean apply(final LineStyle line, final RenderStyle.RenderType type) {
+        return this.immediate.apply(line, type);
+    }
+
+    @Override
+    public RenderSink vertex(final double x, final double y, final double z) {
+        this.immediate.vertex(x, y, z);
+        return this;
+    }
+
+    @Override
+    public RenderSink beginLineLoop() {
+        this.immediate.beginLineLoop();
+        return this;
+    }
+
+    @Override
+    public RenderSink endLineLoop() {
+        this.immediate.endLineLoop();
+        return this;
+    }
+
+    @Override
+    public RenderSink beginLines() {
+        this.immediate.beginLines();
+        return this;
+    }
+
+    @Override
+    public RenderSink endLines() {
+        this.immediate.endLines();
+        return this;
+    }
+
+    @Override
+    public RenderSink beginQuads() {
+        this.immediate.beginQuads();
+        return this;
+    }
+
+    @Override
+    public RenderSink endQuads() {
+        this.immediate.endQuads();
+        return this;
+    }
+
+    @Override
+    public void flush() {
+        this.drawImmediate();
+        this.drawCompared();
+        this.evictUnused();
+    }
+
+    @Override
+    public void draw(final CompiledGeometry geometry, final double dx, final double dy, final double dz, final ViewFrustum frustum) {
+        // the whole mesh is drawn from one buffer, so culling only happens for the entire region
+        if (geometry.isEmpty()) {
+            return;
+        }
+
+        // anything drawn immediately so far should stay underneath
+        this.drawImmediate();
+
+        Mesh mesh = this.meshes.get(geometry);
+        if (mesh == null) {
+            mesh = new Mesh();
+            this.meshes.put(geometry, mesh);
+        }
+        if (mesh.revision != geometry.revision()) {
+            this.upload(mesh, geometry, false);
+        }
+        mesh.lastUsed = System.nanoTime();
+        this.drawMesh(mesh, dx, dy, dz);
+    }
+
+    @Override
+    public void close() {
+        for (final Mesh mesh : this.meshes.values()) {
+            mesh.close();
+        }
+        this.meshes.clear();
+        this.immediateMesh.close();
+        Arrays.fill(this.compared, 0, this.comparedCount, null);
+        Arrays.fill(this.comparedTransforms, 0, this.comparedCount, null);
+        this.comparedCount = 0;
+        this.buffer.close();
+        this.styleData.close();
+    }
+
+    private void drawImmediate() {
+        if (this.immediate.isEmpty()) {
+            return;
+        }
+
+        // the immediate mesh is about to be overwritten, so its compared lines can't wait any longer
+        for (int i = 0; i < this.comparedCount; i++) {
+            if (this.compared[i] == this.immediateMesh) {
+                this.drawCompared();
+                break;
+            }
+        }
+
+        this.upload(this.immediateMesh, this.immediate, true);
+        this.immediate.reset(0, 0, 0);
+        this.drawMesh(this.immediateMesh, 0, 0, 0);
+    }
+
+    private void evictUnused() {
+        final long now = System.nanoTime();
+        if (now - this.lastEviction < EVICT_AFTER_NANOS) {
+            return;
+        }
+
+        this.lastEviction = now;
+        this.meshes.values().removeIf(mesh -> {
+            if (now - mesh.lastUsed > EVICT_AFTER_NANOS) {
+                mesh.close();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    // Upload
+
+    private void upload(final Mesh mesh, final CompiledGeometry geometry, final boolean reuse) {
+        mesh.drawCount = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            if (bucket >= TYPES.length) {
+                this.uploadLines(mesh, geometry, bucket, reuse);
+                continue;
+            }
+
+            final BufferBuilder builder = new BufferBuilder(this.buffer, VertexFormat.Mode.QUADS, DefaultVertexFormat.POSITION_COLOR);
+            for (int batch = 0, count = geometry.batchCount(); batch < count; batch++) {
+                if (this.bucket(geometry, batch) == bucket) {
+                    writeQuads(builder, geometry, batch);
+                }
+            }
+
+            try (final MeshData data = builder.build()) {
+                if (data == null) {
+                    mesh.indexCounts[bucket] = 0;
+                    continue;
+                }
+
+                mesh.vertices[bucket] = uploadBuffer(mesh.vertices[bucket], data.vertexBuffer(), reuse, GpuBuffer.USAGE_VERTEX);
+                mesh.indexCounts[bucket] = data.drawState().indexCount();
+            }
+        }
+        this.uploadStyles(mesh, reuse);
+        mesh.revision = geometry.revision();
+    }
+
+    private int bucket(final CompiledGeometry geometry, final int batch) {
+        final RenderStyle.RenderType depth = geometry.line(batch).renderType;
+        if (geometry.mode(batch) == CompiledGeometry.MODE_QUADS) {
+            return depth.ordinal();
+        }
+
+        if (this.singlePass && geometry.type(batch) == RenderStyle.RenderType.ANY) {
+            // the shape drew both lines, so the visible one is enough for the shader to draw both
+            return switch (depth) {
+                case HIDDEN -> -1;
+                case VISIBLE -> COMPARE_BUCKET;
+                case ANY -> TYPES.length + depth.ordinal();
+            };
+        }
+        return TYPES.length + depth.ordinal();
+    }
+
+    private void uploadLines(final Mesh mesh, final CompiledGeometry geometry, final int bucket, final boolean reuse) {
+        int vertexCount = 0;
+        for (int batch = 0, count = geometry.batchCount(); batch < count; batch++) {
+            if (this.bucket(geometry, batch) != bucket) {
+                continue;
+            }
+
+            final int first = vertexCount;
+            vertexCount += this.writeLines(geometry, batch);
+            if (vertexCount > first) {
+                mesh.addDraw(bucket, lineIndices(first), lineIndices(vertexCount - first), geometry, batch);
+            }
+        }
+
+        try (final ByteBufferBuilder.Result data = this.buffer.build()) {
+            if (data == null) {
+                mesh.indexCounts[bucket] = 0;
+                return;
+            }
+
+            mesh.vertices[bucket] = uploadBuffer(mesh.vertices[bucket], data.byteBuffer(), reuse, GpuBuffer.USAGE_VERTEX);
+            mesh.indexCounts[bucket] = lineIndices(vertexCount);
+        }
+    }
+
+    private static int lineIndices(final int vertices) {
+        return vertices / 4 * 6; // two triangles for every four vertices
+    }
+
+    private void uploadStyles(final Mesh mesh, final boolean reuse) {
+        if (mesh.drawCount == 0) {
+            return;
+        }
+
+        // each draw binds its own slice, so they have to start on an aligned offset
+        final int stride = Mth.roundToward(LINE_STYLE_UBO_SIZE, RenderSystem.getDevice().getUniformOffsetAlignment());
+        for (int draw = 0; draw < mesh.drawCount; draw++) {
+            // std140 layout, a vec4 colour followed by the width
+            final int style = draw * STYLE_SIZE;
+            final long pointer = this.styleData.reserve(stride);
+            MemoryUtil.memPutFloat(pointer, mesh.styles[style]);
+            MemoryUtil.memPutFloat(pointer + 4, mesh.styles[style + 1]);
+            MemoryUtil.memPutFloat(pointer + 8, mesh.styles[style + 2]);
+            MemoryUtil.memPutFloat(pointer + 12, mesh.styles[style + 3]);
+            MemoryUtil.memPutFloat(pointer + 16, mesh.styles[style + 4]);
+        }
+
+        try (final ByteBufferBuilder.Result data = this.styleData.build()) {
+            final GpuBuffer styles = uploadBuffer(mesh.styleBuffer, data.byteBuffer(), reuse, GpuBuffer.USAGE_UNIFORM);
+            if (styles != mesh.styleBuffer) {
+                mesh.styleBuffer = styles;
+                mesh.styleSliceCount = 0;
+            }
+        }
+
+        // slices stay valid while the buffer is reused, as each draw keeps its offset
+        if (mesh.styleSlices.length < mesh.drawCount) {
+            mesh.styleSlices = Arrays.copyOf(mesh.styleSlices, Math.max(mesh.drawCount, mesh.styleSlices.length * 2));
+        }
+        for (int draw = mesh.styleSliceCount; draw < mesh.drawCount; draw++) {
+            mesh.styleSlices[draw] = mesh.styleBuffer.slice(draw * stride, LINE_STYLE_UBO_SIZE);
+        }
+        mesh.styleSliceCount = Math.max(mesh.styleSliceCount, mesh.drawCount);
+    }
+
+    private static GpuBuffer uploadBuffer(final @Nullable GpuBuffer existing, final ByteBuffer data, final boolean reuse, final int usage) {
+        if (reuse && existing != null && !existing.isClosed() && existing.size() >= data.remaining()) {
+            RenderSystem.getDevice().createCommandEncoder().writeToBuffer(existing.slice(0, data.remaining()), data);
+            return existing;
+        }
+
+        if (existing != null) {
+            existing.close();
+        }
+        return RenderSystem.getDevice().createBuffer(() -> "WorldEditCUI geometry", usage | GpuBuffer.USAGE_COPY_DST, data);
+    }
+
+    private static void writeQuads(final BufferBuilder builder, final CompiledGeometry geometry, final int batch) {
+        final float[] vertices = geometry.vertices();
+        final float r = geometry.red(batch), g = geometry.green(batch), b = geometry.blue(batch), a = geometry.alpha(batch);
+        for (int i = geometry.firstVertex(batch) * 3, end = geometry.endVertex(batch) * 3; i < end; i += 3) {
+            builder.addVertex(vertices[i], vertices[i + 1], vertices[i + 2]).setColor(r, g, b, a);
+        }
+    }
+
+    private int writeLines(final CompiledGeometry geometry, final int batch) {
+        final float[] vertices = geometry.vertices();
+        final int start = geometry.firstVertex(batch) * 3;
+        final int end = geometry.endVertex(batch) * 3;
+        int written = 0;
+        if (geometry.mode(batch) == CompiledGeometry.MODE_LINE_LOOP) {
+            for (int i = start; i < end; i += 3) {
+                final int next = i + 3 < end ? i + 3 : start; // close the loop
+                written += this.writeSegment(vertices, i, next);
+            }
+        } else {
+            for (int i = start; i + 3 < end; i += 6) {
+                written += this.writeSegment(vertices, i, i + 3);
+            }
+        }
+        return written;
+    }
+
+    private int writeSegment(final float[] vertices, final int from, final int to) {
+        final float x0 = vertices[from], y0 = vertices[from + 1], z0 = vertices[from + 2];
+        final float x1 = vertices[to], y1 = vertices[to + 1], z1 = vertices[to + 2];
+        final float dX = x1 - x0;
+        final float dY = y1 - y0;
+        final float dZ = z1 - z0;
+        final float length = (float) Math.sqrt(dX * dX + dY * dY + dZ * dZ);
+        if (length == 0) {
+            return 0; // nothing to see, and the normal would be undefined
+        }
+
+        // the normal is the line direction, which the line shader uses to extrude it towards the screen
+        final int normal = packNormal(dX / length, dY / length, dZ / length);
+        // each end is written twice, once for either side of the line
+        this.writeLineVertex(x0, y0, z0, normal);
+        this.writeLineVertex(x0, y0, z0, normal);
+        this.writeLineVertex(x1, y1, z1, normal);
+        this.writeLineVertex(x1, y1, z1, normal);
+        return 4;
+    }
+
+    private void writeLineVertex(final float x, final float y, final float z, final int normal) {
+        final long pointer = this.buffer.reserve(RetainedPipelineProvider.LINE_FORMAT.getVertexSize());
+        MemoryUtil.memPutFloat(pointer, x);
+        MemoryUtil.memPutFloat(pointer + 4, y);
+        MemoryUtil.memPutFloat(pointer + 8, z);
+        MemoryUtil.memPutInt(pointer + 12, normal);
+    }
+
+    private static int packNormal(final float x, final float y, final float z) {
+        // signed bytes in XYZ order, with the last byte as padding
+        return (normalByte(z) << 16) | (normalByte(y) << 8) | normalByte(x);
+    }
+
+    private static int normalByte(final float value) {
+        return (int) (Mth.clamp(value, -1f, 1f) * 127f) & 0xFF;
+    }
+
+    // Draw
+
+    private void drawMesh(final Mesh mesh, final double dx, final double dy, final double dz) {
+        boolean empty = true;
+        for (int bucket = 0; bucket < COMPARE_BUCKET; bucket++) {
+            final int indexCount = mesh.indexCounts[bucket];
+            if (indexCount == 0) {
+                continue;
+            }
+
+            empty = false;
+            // index buffers may need to grow, which can't happen while a render pass is open
+            final RenderSystem.AutoStorageIndexBuffer indices = RenderSystem.getSequentialBuffer(bucket < TYPES.length ? VertexFormat.Mode.QUADS : VertexFormat.Mode.LINES);
+            this.indexBuffers[bucket] = indices.getBuffer(indexCount);
+            this.indexTypes[bucket] = indices.type();
+        }
+        final boolean compared = mesh.indexCounts[COMPARE_BUCKET] > 0;
+        if (empty && !compared) {
+            return;
+        }
+
+        final Matrix4f modelView = this.modelView.set(RenderSystem.getModelViewStack()).translate((float) dx, (float) dy, (float) dz);
+        final GpuBufferSlice transforms = RenderSystem.getDynamicUniforms().writeTransform(modelView, WHITE, NO_OFFSET, IDENTITY);
+        if (compared) {
+            this.deferCompared(mesh, transforms);
+        }
+        if (empty) {
+            return;
+        }
+
+        final RenderTarget target = Minecraft.getInstance().getMainRenderTarget();
+        try (final RenderPass pass = RenderSystem.getDevice().createCommandEncoder().createRenderPass(() -> "WorldEditCUI retained geometry",
+                target.getColorTextureView(), OptionalInt.empty(), target.getDepthTextureView(), OptionalDouble.empty())) {
+            RenderSystem.bindDefaultUniforms(pass);
+            pass.setUniform("DynamicTransforms", transforms);
+            for (int bucket = 0; bucket < TYPES.length; bucket++) {
+                if (mesh.indexCounts[bucket] == 0) {
+                    continue;
+                }
+
+                pass.setPipeline(RetainedPipelineProvider.quads(TYPES[bucket]));
+                this.drawBucket(pass, mesh, bucket);
+            }
+
+            for (int bucket = TYPES.length; bucket < COMPARE_BUCKET; bucket++) {
+                if (mesh.indexCounts[bucket] == 0) {
+                    continue;
+                }
+
+                pass.setPipeline(RetainedPipelineProvider.lines(TYPES[bucket - TYPES.length]));
+                this.drawLineBatches(pass, mesh, bucket);
+            }
+        }
+    }
+
+    private void deferCompared(final Mesh mesh, final GpuBufferSlice transforms) {
+        if (this.comparedCount == this.compared.length) {
+            this.compared = Arrays.copyOf(this.compared, this.comparedCount * 2);
+            this.comparedTransforms = Arrays.copyOf(this.comparedTransforms, this.comparedCount * 2);
+        }
+        this.compared[this.comparedCount] = mesh;
+        this.comparedTransforms[this.comparedCount] = transforms;
+        this.comparedCount++;
+    }
+
+    private void drawCompared() {
+        if (this.comparedCount == 0) {
+            return;
+        }
+
+        int indexCount = 0;
+        for (int i = 0; i < this.comparedCount; i++) {
+            indexCount = Math.max(indexCount, this.compared[i].indexCounts[COMPARE_BUCKET]);
+        }
+        final RenderSystem.AutoStorageIndexBuffer indices = RenderSystem.getSequentialBuffer(VertexFormat.Mode.LINES);
+        this.indexBuffers[COMPARE_BUCKET] = indices.getBuffer(indexCount);
+        this.indexTypes[COMPARE_BUCKET] = indices.type();
+
+        // the depth buffer is read by the shader, so it can't be attached at the same time
+        final RenderTarget target = Minecraft.getInstance().getMainRenderTarget();
+        try (final RenderPass pass = RenderSystem.getDevice().createCommandEncoder().createRenderPass(() -> "WorldEditCUI depth compared lines",
+                target.getColorTextureView(), OptionalInt.empty())) {
+            RenderSystem.bindDefaultUniforms(pass);
+            pass.setPipeline(RetainedPipelineProvider.depthCompareLines());
+            pass.bindTexture("DepthSampler", target.getDepthTextureView(), RenderSystem.getSamplerCache().getClampToEdge(FilterMode.NEAREST));
+            for (int i = 0; i < this.comparedCount; i++) {
+                pass.setUniform("DynamicTransforms", this.comparedTransforms[i]);
+                this.drawLineBatches(pass, this.compared[i], COMPARE_BUCKET);
+            }
+        }
+
+        Arrays.fill(this.compared, 0, this.comparedCount, null);
+        Arrays.fill(this.comparedTransforms, 0, this.comparedCount, null);
+        this.comparedCount = 0;
+    }
+
+    private void drawLineBatches(final RenderPass pass, final Mesh mesh, final int bucket) {
+        pass.setVertexBuffer(0, mesh.vertices[bucket]);
+        pass.setIndexBuffer(this.indexBuffers[bucket], this.indexTypes[bucket]);
+        for (int draw = 0; draw < mesh.drawCount; draw++) {
+            final int offset = draw * DRAW_SIZE;
+            if (mesh.draws[offset] != bucket) {
+                continue;
+            }
+
+            pass.setUniform("WecuiLineStyle", mesh.styleSlices[draw]);
+            pass.drawIndexed(0, mesh.draws[offset + 1], mesh.draws[offset + 2], 1);
+        }
+    }
+
+    private void drawBucket(final RenderPass pass, final Mesh mesh, final int bucket) {
+        pass.setVertexBuffer(0, mesh.vertices[bucket]);
+        pass.setIndexBuffer(this.indexBuffers[bucket], this.indexTypes[bucket]);
+        pass.drawIndexed(0, 0, mesh.indexCounts[bucket], 1);
+    }
+}
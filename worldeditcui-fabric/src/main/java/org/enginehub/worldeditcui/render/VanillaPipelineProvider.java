@@ -67,6 +67,6 @@ public final class VanillaPipelineProvider implements PipelineProvider {
 
     @Override
     public RenderSink provide() {
-        return new BufferBuilderRenderSink(DefaultTypeFactory.INSTANCE);
+        return new DrawCommandQueue(new BufferBuilderRenderSink(DefaultTypeFactory.INSTANCE));
     }
 }
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2011-2024 WorldEditCUI team and contributors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.enginehub.worldeditcui.render;
+
+import org.joml.Vector3fc;
+
+/**
+ * The volume visible from the camera, used to skip geometry which is
+ * off-screen.
+ *
+ * <p>All tests take coordinates relative to the camera, as the shape code
+ * works with them. The frustum has no far plane, and is widened slightly
+ * so that effects which change the field of view (sprinting, potions) do
+ * not cut off geometry at the edges of the screen.</p>
+ *
+ * <p>Until it is first updated, a frustum treats everything as visible.</p>
+ */
+public final class ViewFrustum {
+    private static final double FOV_MARGIN = 1.25;
+    private static final double MAX_FOV = 170.0;
+
+    // inward-facing normals of the left, right, top and bottom planes, which all pass through the camera
+    private final double[] planes = new double[4 * 3];
+    private boolean enabled;
+    private double pixelScale;
+
+    /**
+     * Update the frustum for the current camera orientation.
+     *
+     * @param look the direction the camera is looking in
+     * @param up the camera's up direction
+     * @param left the camera's left direction
+     * @param fov the vertical field of view, in degrees
+     * @param width the width of the screen, in pixels
+     * @param height the height of the screen, in pixels
+     */
+    public void update(final Vector3fc look, final Vector3fc up, final Vector3fc left, final double fov, final int width, final int height) {
+        final double tanVertical = Math.tan(Math.toRadians(Math.min(fov * FOV_MARGIN, MAX_FOV)) / 2);
+        final double tanHorizontal = tanVertical * width / Math.max(height, 1);
+        this.pixelScale = height / (2 * Math.tan(Math.toRadians(fov) / 2));
+
+        // a point is inside the left plane if its leftwards component is at most tan(h) times its forward component, etc.
+        this.plane(0, look, left, -1, tanHorizontal);
+        this.plane(1, look, left, 1, tanHorizontal);
+        this.plane(2, look, up, -1, tanVertical);
+        this.plane(3, look, up, 1, tanVertical);
+        this.enabled = true;
+    }
+
+    /**
+     * Get the number of pixels a length of one block covers on screen at a
+     * distance of one block from the camera, which scales inversely with
+     * distance.
+     *
+     * @return the pixel scale, or 0 if the frustum has not been updated
+     */
+    public double pixelScale() {
+        return this.pixelScale;
+    }
+
+    private void plane(final int plane, final Vector3fc look, final Vector3fc side, final double sign, final double tan) {
+        final int i = plane * 3;
+        this.planes[i] = tan * look.x() + sign * side.x();
+        this.planes[i + 1] = tan * look.y() + sign * side.y();
+        this.planes[i + 2] = tan * look.z() + sign * side.z();
+    }
+
+    /**
+     * Get whether any part of a box may be visible.
+     *
+     * @return true if the box intersects the frustum
+     */
+    public boolean isVisible(final double minX, final double minY, final double minZ, final double maxX, final double maxY, final double maxZ) {
+        if (!this.enabled) {
+            return true;
+        }
+
+        final double[] planes = this.planes;
+        for (int i = 0; i < planes.length; i += 3) {
+            // the corner furthest along the normal
+            final double nx = planes[i], ny = planes[i + 1], nz = planes[i + 2];
+            if (nx * (nx > 0 ? maxX : minX) + ny * (ny > 0 ? maxY : minY) + nz * (nz > 0 ? maxZ : minZ) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get whether a box is entirely visible, so that nothing inside it
+     * needs to be tested individually.
+     *
+     * @return true if the box is inside the frustum
+     */
+    public boolean contains(final double minX, final double minY, final double minZ, final double maxX, final double maxY, final double maxZ) {
+        if (!this.enabled) {
+            return true;
+        }
+
+        final double[] planes = this.planes;
+        for (int i = 0; i < planes.length; i += 3) {
+            // the corner furthest against the normal
+            final double nx = planes[i], ny = planes[i + 1], nz = planes[i + 2];
+            if (nx * (nx > 0 ? minX : maxX) + ny * (ny > 0 ? minY : maxY) + nz * (nz > 0 ? minZ : maxZ) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -75,8 +75,15 @@ public class PointCube extends Observable<BoundingBox>
 		this.box.render(ctx);
 	}
 
-	public void updatePoint(float partialTicks)
+	/**
+	 * Update the position of this point, if it is dynamic.
+	 * 
+	 * @param partialTicks partial ticks
+	 * @return whether the point moved
+	 */
+	public boolean updatePoint(float partialTicks)
 	{
+		return false;
 	}
 
 	public Vector3 getPoint()
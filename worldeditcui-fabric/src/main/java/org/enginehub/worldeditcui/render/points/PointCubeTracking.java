@@ -52,11 +52,11 @@ public class PointCubeTracking extends PointCube
 	}
 
 	@Override
-	public void updatePoint(float partialTicks)
+	public boolean updatePoint(float partialTicks)
 	{
 		HitResult res = this.entity.pick(this.traceDistance, partialTicks, false);
 		if (!(res instanceof BlockHitResult)) {
-			return;
+			return false;
 		}
 
 		BlockPos pos = ((BlockHitResult) res).getBlockPos();
@@ -72,6 +72,9 @@ public class PointCubeTracking extends PointCube
 			this.point = new Vector3(x, y, z);
 			this.box.setPosition(this.point.subtract(PointCube.MIN_VEC), this.point.add(PointCube.MAX_VEC));
 			this.notifyObservers();
+			return true;
 		}
+		
+		return false;
 	}
 }
@@ -41,14 +41,27 @@ public class CuboidRegion extends Region
 	}
 	
 	@Override
-	public void render(CUIRenderContext ctx)
+	protected void updateDynamic(CUIRenderContext ctx)
+	{
+		for (PointCube point : this.points)
+		{
+			if (point != null && point.updatePoint(ctx.dt()))
+			{
+				this.markDirty();
+			}
+		}
+	}
+	
+	@Override
+	protected void renderGeometry(CUIRenderContext ctx)
 	{
 		if (this.points[0] != null && this.points[1] != null)
 		{
-			this.points[0].updatePoint(ctx.dt());
-			this.points[1].updatePoint(ctx.dt());
-			
-			this.grid.render(ctx);
+			if (this.getDetail() == DetailLevel.FULL)
+			{
+				this.grid.setMinLinePixels(this.controller.getConfiguration().getGridLinePixels());
+				this.grid.render(ctx);
+			}
 			this.box.render(ctx);
 			
 			this.points[0].render(ctx);
@@ -56,12 +69,10 @@ public class CuboidRegion extends Region
 		}
 		else if (this.points[0] != null)
 		{
-			this.points[0].updatePoint(ctx.dt());
 			this.points[0].render(ctx);
 		}
 		else if (this.points[1] != null)
 		{
-			this.points[1].updatePoint(ctx.dt());
 			this.points[1].render(ctx);
 		}
 	}
@@ -74,6 +85,7 @@ public class CuboidRegion extends Region
 		{
 			this.grid.setSpacing(spacing);
 		}
+		this.markDirty();
 	}
 	
 	@Override
@@ -106,6 +118,7 @@ public class CuboidRegion extends Region
 			this.grid = Render3DGrid.region3dGrid(this.styles[1], bounds).setSpacing(this.spacing);
 			this.box = Render3DBox.region3dBox(this.styles[0], bounds);
 		}
+		this.markDirty();
 	}
 	
 	@Override
@@ -39,13 +39,19 @@ public class CylinderRegion extends Region
 	}
 	
 	@Override
-	public void render(CUIRenderContext ctx)
+	protected void renderGeometry(CUIRenderContext ctx)
 	{
 		if (this.centre != null)
 		{
 			this.centre.render(ctx);
-			this.circles.render(ctx);
-			this.grid.render(ctx);
+			if (this.getDetail() == DetailLevel.FULL)
+			{
+				final int layerRange = this.controller.getConfiguration().getGridRange();
+				this.circles.setLayerRange(layerRange);
+				this.grid.setLayerRange(layerRange);
+				this.circles.render(ctx);
+				this.grid.render(ctx);
+			}
 			this.box.render(ctx);
 		}
 	}
@@ -76,6 +82,8 @@ public class CylinderRegion extends Region
 	
 	private void update()
 	{
+		this.markDirty();
+		
 		int tMin = this.minY;
 		int tMax = this.maxY;
 		
@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2011-2024 WorldEditCUI team and contributors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.enginehub.worldeditcui.render.region;
+
+/**
+ * How much of a region is drawn, chosen from its distance to the camera.
+ */
+public enum DetailLevel
+{
+	/**
+	 * Everything is drawn.
+	 */
+	FULL,
+	/**
+	 * Grids, ellipsoid slices and cylinder rings are left out.
+	 */
+	REDUCED,
+	/**
+	 * Only a box around the region is drawn.
+	 */
+	OUTLINE,
+	/**
+	 * Nothing is drawn.
+	 */
+	HIDDEN;
+}
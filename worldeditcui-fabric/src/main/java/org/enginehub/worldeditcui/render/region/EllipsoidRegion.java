@@ -36,11 +36,12 @@ public class EllipsoidRegion extends Region
 	}
 	
 	@Override
-	public void render(CUIRenderContext ctx)
+	protected void renderGeometry(CUIRenderContext ctx)
 	{
 		if (this.centre != null && this.radii != null)
 		{
 			this.centre.render(ctx);
+			this.ellipsoid.setSlices(this.getDetail() == DetailLevel.FULL);
 			this.ellipsoid.render(ctx);
 		}
 		else if (this.centre != null)
@@ -66,6 +67,8 @@ public class EllipsoidRegion extends Region
 
 	private void update()
 	{
+		this.markDirty();
+		
 		if (this.centre != null && this.radii != null)
 		{
 			this.ellipsoid = new RenderEllipsoid(this.styles[0], this.centre, this.radii);
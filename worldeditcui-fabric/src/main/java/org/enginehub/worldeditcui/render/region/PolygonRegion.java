@@ -31,22 +31,32 @@ public class PolygonRegion extends Region
 	private final List<PointRectangle> points = new ArrayList<>();
 	private int min, max;
 	
-	private Render2DBox box;
-	private Render2DGrid grid;
+	private boolean heightChanged;
+	
+	// both shapes draw from the live point list, so they only need updating when the height changes
+	private final Render2DBox box;
+	private final Render2DGrid grid;
 	
 	public PolygonRegion(WorldEditCUI controller)
 	{
 		super(controller, ConfiguredColour.POLYBOX.style(), ConfiguredColour.POLYGRID.style(), ConfiguredColour.POLYPOINT.style());
+		this.box = new Render2DBox(this.styles[0], this.points, this.min, this.max);
+		this.grid = new Render2DGrid(this.styles[1], this.points, this.min, this.max);
 	}
 	
 	@Override
-	public void render(CUIRenderContext ctx)
+	protected void renderGeometry(CUIRenderContext ctx)
 	{
 		if (this.points.size() < 1)
 		{
 			return;
 		}
 		
+		if (this.heightChanged)
+		{
+			this.updateHeight();
+		}
+		
 		for (PointRectangle point : this.points)
 		{
 			if (point != null)
@@ -56,7 +66,11 @@ public class PolygonRegion extends Region
 		}
 		
 		this.box.render(ctx);
-		this.grid.render(ctx);
+		if (this.getDetail() == DetailLevel.FULL)
+		{
+			this.grid.setLayerRange(this.controller.getConfiguration().getGridRange());
+			this.grid.render(ctx);
+		}
 	}
 	
 	@Override
@@ -64,7 +78,10 @@ public class PolygonRegion extends Region
 	{
 		this.min = min;
 		this.max = max;
-		this.update();
+		
+		// applied to the points when the region is next compiled, which happens at most once a frame
+		this.heightChanged = true;
+		this.markDirty();
 	}
 	
 	@Override
@@ -80,21 +97,18 @@ public class PolygonRegion extends Region
 		}
 		else
 		{
-			for (int i = 0; i < id - this.points.size(); i++)
+			while (this.points.size() < id)
 			{
 				this.points.add(null);
 			}
 			this.points.add(point);
 		}
-		this.update();
+		this.markDirty();
 	}
 	
-	private void update()
+	private void updateHeight()
 	{
-		if (this.points.size() <= 0)
-		{
-			return;
-		}
+		this.heightChanged = false;
 		
 		for (PointRectangle point : this.points)
 		{
@@ -104,26 +118,22 @@ public class PolygonRegion extends Region
 			}
 		}
 		
-		this.box = new Render2DBox(this.styles[0], this.points, this.min, this.max);
-		this.grid = new Render2DGrid(this.styles[1], this.points, this.min, this.max);
+		this.box.setMinMax(this.min, this.max);
+		this.grid.setMinMax(this.min, this.max);
 	}
 	
 	@Override
 	protected void updateStyles()
 	{
-		if (this.box != null) 
-		{
-			this.box.setStyle(this.styles[0]);
-		}
-		
-		if (this.grid != null)
-		{
-			this.grid.setStyle(this.styles[1]);
-		}
+		this.box.setStyle(this.styles[0]);
+		this.grid.setStyle(this.styles[1]);
 		
 		for (PointRectangle point : this.points)
 		{
-			point.setStyle(this.styles[0]);
+			if (point != null)
+			{
+				point.setStyle(this.styles[0]);
+			}
 		}
 	}
 
@@ -9,11 +9,12 @@
  */
 package org.enginehub.worldeditcui.render.region;
 
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 import org.enginehub.worldeditcui.WorldEditCUI;
 import org.enginehub.worldeditcui.event.listeners.CUIRenderContext;
 import org.enginehub.worldeditcui.render.ConfiguredColour;
 import org.enginehub.worldeditcui.render.points.PointCube;
-import org.enginehub.worldeditcui.render.shapes.Render3DPolygon;
+import org.enginehub.worldeditcui.render.shapes.Render3DEdges;
 import org.enginehub.worldeditcui.util.Vector3;
 
 import java.util.ArrayList;
@@ -30,27 +31,28 @@ public class PolyhedronRegion extends Region
 	private static final Vector3 HALF = new Vector3(0.5, 0.5, 0.5);
 	
 	private final List<PointCube> vertices = new ArrayList<>();
-	private final List<Vector3[]> faces = new ArrayList<>();
-	
-	private final List<Render3DPolygon> faceRenders = new ArrayList<>();
+	// faces share their edges with their neighbours, so each edge is only drawn once
+	private final LongOpenHashSet edges = new LongOpenHashSet();
+	private final Render3DEdges edgeRender;
 	
 	public PolyhedronRegion(WorldEditCUI controller)
 	{
 		super(controller, ConfiguredColour.POLYBOX.style(), ConfiguredColour.POLYPOINT.style(), ConfiguredColour.CUBOIDPOINT1.style());
+		this.edgeRender = new Render3DEdges(this.styles[0]);
 	}
 	
 	@Override
-	public void render(CUIRenderContext ctx)
+	protected void renderGeometry(CUIRenderContext ctx)
 	{
 		for (PointCube vertex : this.vertices)
 		{
-			vertex.render(ctx);
+			if (vertex != null)
+			{
+				vertex.render(ctx);
+			}
 		}
 		
-		for (Render3DPolygon face : this.faceRenders)
-		{
-			face.render(ctx);
-		}
+		this.edgeRender.render(ctx);
 	}
 
 	@Override
@@ -65,43 +67,52 @@ public class PolyhedronRegion extends Region
 		}
 		else
 		{
-			for (int i = 0; i < id - this.vertices.size(); i++)
+			while (this.vertices.size() < id)
 			{
 				this.vertices.add(null);
 			}
 			this.vertices.add(vertex);
 		}
+		
+		this.markDirty();
 	}
 	
 	@Override
 	public void addPolygon(int[] vertexIds)
 	{
-		final Vector3[] face = new Vector3[vertexIds.length];
-		for (int i = 0; i < vertexIds.length; ++i)
+		for (int vertexId : vertexIds)
 		{
-			final PointCube vertex = this.vertices.get(vertexIds[i]);
-			if (vertex == null)
+			if (this.vertices.get(vertexId) == null)
 			{
 				// This should never happen
 				return;
 			}
-			
-			face[i] = vertex.getPoint().add(HALF);
 		}
-		this.faces.add(face);
-		this.update();
-	}
-	
-	private void update()
-	{
-		this.faceRenders.clear();
 		
-		for (Vector3[] face : this.faces)
+		// faces only ever get added, so there's no need to rebuild the existing edges
+		boolean added = false;
+		for (int i = 0; i < vertexIds.length; ++i)
 		{
-			this.faceRenders.add(new Render3DPolygon(this.styles[0], face));
+			final int start = vertexIds[i];
+			final int end = vertexIds[(i + 1) % vertexIds.length];
+			if (start != end && this.edges.add(edgeKey(start, end)))
+			{
+				this.edgeRender.addEdge(this.vertices.get(start).getPoint().add(HALF), this.vertices.get(end).getPoint().add(HALF));
+				added = true;
+			}
+		}
+		
+		if (added)
+		{
+			this.markDirty();
 		}
 	}
 	
+	private static long edgeKey(int a, int b)
+	{
+		return a < b ? ((long) a << 32) | (b & 0xFFFFFFFFL) : ((long) b << 32) | (a & 0xFFFFFFFFL);
+	}
+	
 	@Override
 	protected void updateStyles()
 	{
@@ -110,10 +121,7 @@ public class PolyhedronRegion extends Region
 			vertex.setStyle(vertex.getId() == 0 ? this.styles[2] : this.styles[1]);
 		}
 		
-		for (Render3DPolygon face : this.faceRenders)
-		{
-			face.setStyle(this.styles[0]);
-		}
+		this.edgeRender.setStyle(this.styles[0]);
 	}
 
 	@Override
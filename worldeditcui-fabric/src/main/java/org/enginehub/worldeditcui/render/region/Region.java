@@ -12,27 +12,80 @@ package org.enginehub.worldeditcui.render.region;
 import net.minecraft.world.entity.Entity;
 import org.enginehub.worldeditcui.InitialisationFactory;
 import org.enginehub.worldeditcui.WorldEditCUI;
+import org.enginehub.worldeditcui.config.CUIConfiguration;
 import org.enginehub.worldeditcui.event.listeners.CUIRenderContext;
 import org.enginehub.worldeditcui.exceptions.InvalidSelectionTypeException;
+import org.enginehub.worldeditcui.render.CompiledGeometry;
+import org.enginehub.worldeditcui.render.LineStyle;
 import org.enginehub.worldeditcui.render.RenderStyle;
 import org.enginehub.worldeditcui.render.RenderStyle.RenderType;
+import org.enginehub.worldeditcui.render.shapes.Render3DBox;
+import org.enginehub.worldeditcui.util.Observable;
+import org.enginehub.worldeditcui.util.Observer;
+import org.enginehub.worldeditcui.util.Vector3;
+import org.enginehub.worldeditcui.util.Vector3m;
+
+import java.util.function.Consumer;
 
 /**
  * Base region storage class. Provides
  * abstract methods for setting various
  * points in the region. 
  * 
+ * <p>The geometry of a region is compiled once and replayed every frame
+ * until the region is marked dirty, its styles change, or the camera moves
+ * far enough away from where the geometry was compiled.</p>
+ * 
+ * <p>Observers are notified whenever the region is marked dirty and
+ * whenever it is compiled, which is when its bounds may change.</p>
+ * 
+ * <p>Regions further from the camera are drawn in less detail, see
+ * {@link DetailLevel}.</p>
+ * 
  * @author yetanotherx
  * @author lahwran
  * @author Adam Mummery-Smith
  */
-public abstract class Region implements InitialisationFactory
+public abstract class Region extends Observable<Observer> implements InitialisationFactory
 {
 	protected final WorldEditCUI controller;
 	protected final RenderStyle[] defaultStyles;
 	protected RenderStyle[] styles;
 	protected RenderType renderType = RenderType.ANY;
 	
+	/**
+	 * Distance the camera may move from the compile origin before the
+	 * geometry is compiled again, so that view-dependent culling stays
+	 * reasonably accurate.
+	 */
+	private static final double RECOMPILE_DISTANCE = 8.0;
+	
+	/**
+	 * Fraction of a detail threshold the distance must drop below before
+	 * a finer level is used again, so that a region sitting right on a
+	 * threshold isn't recompiled every frame.
+	 */
+	private static final double DETAIL_HYSTERESIS = 0.9;
+	
+	/**
+	 * Relative change in the size of the screen or field of view after
+	 * which circles are tessellated again.
+	 */
+	private static final double RESCALE_THRESHOLD = 0.1;
+	
+	private final CompiledGeometry geometry = new CompiledGeometry();
+	private boolean dirty = true;
+	private LineStyle[] compiledLines = new LineStyle[0];
+	private RenderType[] compiledTypes = new RenderType[0];
+	
+	private DetailLevel detail = DetailLevel.FULL, compiledDetail;
+	private double compiledPixelScale;
+	private boolean boundsChanged = true;
+	private final Vector3m outlineMin = new Vector3m(), outlineMax = new Vector3m();
+	private Render3DBox outline;
+	private int batchDepth;
+	private boolean batchDirty;
+	
 	protected Region(WorldEditCUI controller, RenderStyle... styles)
 	{
 		this.controller = controller;
@@ -44,7 +97,375 @@ public abstract class Region implements InitialisationFactory
 	{
 	}
 	
-	public abstract void render(CUIRenderContext ctx);
+	public final void render(CUIRenderContext ctx)
+	{
+		this.updateDynamic(ctx);
+		
+		this.detail = this.selectDetail(ctx.cameraPos());
+		if (this.detail == DetailLevel.HIDDEN)
+		{
+			return;
+		}
+		if (this.detail != this.compiledDetail)
+		{
+			this.invalidate();
+		}
+		
+		// out of view regions are skipped before recompiling. The bounds are of the geometry compiled
+		// for an earlier camera position, which may have left parts out, so they only stand in for
+		// the region until the camera drifts far enough for it to be compiled again.
+		if (!this.dirty && !this.hasDrifted(ctx.cameraPos()) && !this.isVisible(ctx))
+		{
+			return;
+		}
+		
+		// during a batch the last complete geometry is drawn, rather than compiling a partial one
+		if (this.batchDepth == 0 && (this.dirty || this.hasDrifted(ctx.cameraPos()) || this.hasRescaled(ctx) || this.stylesChanged()))
+		{
+			this.compile(ctx);
+			if (!this.isVisible(ctx))
+			{
+				return;
+			}
+		}
+		
+		final Vector3 camera = ctx.cameraPos();
+		ctx.draw(this.geometry, this.geometry.originX() - camera.getX(), this.geometry.originY() - camera.getY(), this.geometry.originZ() - camera.getZ(), ctx.frustum());
+	}
+	
+	/**
+	 * Emit the geometry of this region. The output is recorded and
+	 * replayed on subsequent frames, so implementations should only
+	 * be concerned with drawing the current state.
+	 * 
+	 * @param ctx the render context
+	 */
+	protected abstract void renderGeometry(CUIRenderContext ctx);
+	
+	/**
+	 * Get the level of detail the region is being drawn at, which
+	 * implementations should check when emitting their geometry.
+	 * 
+	 * @return the current level of detail
+	 */
+	protected DetailLevel getDetail()
+	{
+		return this.detail;
+	}
+	
+	/**
+	 * Update any state which changes from frame to frame, called before
+	 * every render. Implementations should call {@link #markDirty()} if
+	 * anything changed.
+	 * 
+	 * @param ctx the render context
+	 */
+	protected void updateDynamic(CUIRenderContext ctx)
+	{
+	}
+	
+	/**
+	 * Mark the compiled geometry of this region as out of date.
+	 */
+	protected void markDirty()
+	{
+		if (this.batchDepth > 0)
+		{
+			this.batchDirty = true;
+			return;
+		}
+		
+		this.boundsChanged = true;
+		this.invalidate();
+	}
+	
+	private void invalidate()
+	{
+		if (!this.dirty)
+		{
+			this.dirty = true;
+			this.notifyObservers();
+		}
+	}
+	
+	/**
+	 * Hold back changes to this region until {@link #commitBatch()}, so a
+	 * selection sent in many events is only rebuilt once it is complete.
+	 * Batches may be nested.
+	 */
+	public void beginBatch()
+	{
+		this.batchDepth++;
+	}
+	
+	/**
+	 * Apply the changes made since the matching {@link #beginBatch()}.
+	 */
+	public void commitBatch()
+	{
+		if (this.batchDepth == 0)
+		{
+			return;
+		}
+		
+		if (--this.batchDepth == 0 && this.batchDirty)
+		{
+			this.batchDirty = false;
+			this.markDirty();
+		}
+	}
+	
+	/**
+	 * Get whether this region needs to be compiled before its bounds are
+	 * known.
+	 * 
+	 * @return true if the region is dirty
+	 */
+	public boolean isDirty()
+	{
+		return this.dirty;
+	}
+	
+	/**
+	 * Get whether this region drew anything when it was last compiled, and
+	 * so whether it has any bounds.
+	 * 
+	 * @return true if the region has bounds
+	 */
+	public boolean hasBounds()
+	{
+		return !this.geometry.isEmpty();
+	}
+	
+	public double getMinX()
+	{
+		return this.geometry.originX() + this.geometry.minX();
+	}
+	
+	public double getMinY()
+	{
+		return this.geometry.originY() + this.geometry.minY();
+	}
+	
+	public double getMinZ()
+	{
+		return this.geometry.originZ() + this.geometry.minZ();
+	}
+	
+	public double getMaxX()
+	{
+		return this.geometry.originX() + this.geometry.maxX();
+	}
+	
+	public double getMaxY()
+	{
+		return this.geometry.originY() + this.geometry.maxY();
+	}
+	
+	public double getMaxZ()
+	{
+		return this.geometry.originZ() + this.geometry.maxZ();
+	}
+	
+	private void compile(CUIRenderContext ctx)
+	{
+		if (this.detail == DetailLevel.OUTLINE)
+		{
+			if (this.compiledDetail != DetailLevel.OUTLINE)
+			{
+				// the bounds of the detailed geometry, which is still current
+				this.captureOutline();
+			}
+			this.compileGeometry(ctx, this::renderOutline);
+		}
+		else
+		{
+			this.compileGeometry(ctx, this::renderGeometry);
+		}
+		
+		this.captureStyles();
+		this.compiledDetail = this.detail;
+		this.compiledPixelScale = ctx.frustum().pixelScale();
+		this.boundsChanged = false;
+		this.dirty = false;
+		this.notifyObservers();
+	}
+	
+	private void compileGeometry(CUIRenderContext ctx, Consumer<CUIRenderContext> renderer)
+	{
+		final Vector3 camera = ctx.cameraPos();
+		this.geometry.reset(camera.getX(), camera.getY(), camera.getZ());
+		boolean complete = false;
+		try
+		{
+			ctx.withSink(this.geometry, renderer);
+			complete = true;
+		}
+		finally
+		{
+			if (!complete)
+			{
+				// leave nothing half recorded, or every later frame would fail too
+				ctx.abortShape();
+				this.geometry.abort();
+			}
+		}
+	}
+	
+	private void captureOutline()
+	{
+		if (this.hasBounds())
+		{
+			this.outlineMin.set(this.getMinX(), this.getMinY(), this.getMinZ());
+			this.outlineMax.set(this.getMaxX(), this.getMaxY(), this.getMaxZ());
+		}
+		else
+		{
+			this.outlineMin.set(Double.NaN, Double.NaN, Double.NaN);
+		}
+	}
+	
+	private void renderOutline(CUIRenderContext ctx)
+	{
+		if (Double.isNaN(this.outlineMin.getX()))
+		{
+			return; // nothing to draw an outline around
+		}
+		
+		if (this.outline == null)
+		{
+			this.outline = new Render3DBox(this.styles[0], this.outlineMin, this.outlineMax);
+		}
+		this.outline.setStyle(this.styles[0]);
+		this.outline.render(ctx);
+	}
+	
+	private DetailLevel selectDetail(Vector3 camera)
+	{
+		if (!this.hasBounds() || this.boundsChanged)
+		{
+			return DetailLevel.FULL; // compile at full detail once to find out where the region is
+		}
+		
+		// distance from the camera to the closest point of the bounds
+		final double dX = Math.max(0, Math.max(this.getMinX() - camera.getX(), camera.getX() - this.getMaxX()));
+		final double dY = Math.max(0, Math.max(this.getMinY() - camera.getY(), camera.getY() - this.getMaxY()));
+		final double dZ = Math.max(0, Math.max(this.getMinZ() - camera.getZ(), camera.getZ() - this.getMaxZ()));
+		final double distance = Math.sqrt(dX * dX + dY * dY + dZ * dZ);
+		
+		final CUIConfiguration config = this.controller.getConfiguration();
+		if (this.exceeds(distance, config.getRenderDistance(), DetailLevel.HIDDEN))
+		{
+			return DetailLevel.HIDDEN;
+		}
+		if (this.exceeds(distance, config.getLodOutlineDistance(), DetailLevel.OUTLINE))
+		{
+			return DetailLevel.OUTLINE;
+		}
+		if (this.exceeds(distance, config.getLodDetailDistance(), DetailLevel.REDUCED))
+		{
+			return DetailLevel.REDUCED;
+		}
+		return DetailLevel.FULL;
+	}
+	
+	private boolean exceeds(double distance, int threshold, DetailLevel level)
+	{
+		if (threshold <= 0)
+		{
+			return false;
+		}
+		
+		final boolean atLevel = this.detail.ordinal() >= level.ordinal();
+		return distance > (atLevel ? threshold * DETAIL_HYSTERESIS : threshold);
+	}
+	
+	private boolean isVisible(CUIRenderContext ctx)
+	{
+		final Vector3 camera = ctx.cameraPos();
+		return this.geometry.isVisible(ctx.frustum(), this.geometry.originX() - camera.getX(), this.geometry.originY() - camera.getY(), this.geometry.originZ() - camera.getZ());
+	}
+	
+	private boolean hasRescaled(CUIRenderContext ctx)
+	{
+		return Math.abs(ctx.frustum().pixelScale() - this.compiledPixelScale) > this.compiledPixelScale * RESCALE_THRESHOLD;
+	}
+	
+	private boolean hasDrifted(Vector3 camera)
+	{
+		final double dX = camera.getX() - this.geometry.originX();
+		final double dY = camera.getY() - this.geometry.originY();
+		final double dZ = camera.getZ() - this.geometry.originZ();
+		return dX * dX + dY * dY + dZ * dZ > RECOMPILE_DISTANCE * RECOMPILE_DISTANCE;
+	}
+	
+	private void captureStyles()
+	{
+		int lineCount = 0;
+		for (RenderStyle style : this.styles)
+		{
+			if (style != null)
+			{
+				lineCount += style.getLines().length;
+			}
+		}
+		
+		if (this.compiledLines.length != lineCount)
+		{
+			this.compiledLines = new LineStyle[lineCount];
+		}
+		if (this.compiledTypes.length != this.styles.length)
+		{
+			this.compiledTypes = new RenderType[this.styles.length];
+		}
+		
+		int index = 0;
+		for (int i = 0; i < this.styles.length; i++)
+		{
+			final RenderStyle style = this.styles[i];
+			if (style != null)
+			{
+				this.compiledTypes[i] = style.getRenderType();
+				for (LineStyle line : style.getLines())
+				{
+					this.compiledLines[index++] = line;
+				}
+			}
+		}
+	}
+	
+	private boolean stylesChanged()
+	{
+		if (this.compiledTypes.length != this.styles.length)
+		{
+			return true;
+		}
+		
+		int index = 0;
+		for (int i = 0; i < this.styles.length; i++)
+		{
+			final RenderStyle style = this.styles[i];
+			if (style == null)
+			{
+				continue;
+			}
+			
+			if (this.compiledTypes[i] != style.getRenderType())
+			{
+				return true;
+			}
+			
+			for (LineStyle line : style.getLines())
+			{
+				if (index >= this.compiledLines.length || this.compiledLines[index++] != line)
+				{
+					return true;
+				}
+			}
+		}
+		
+		return index != this.compiledLines.length;
+	}
 	
 	public RenderStyle[] getDefaultStyles()
 	{
@@ -55,6 +476,7 @@ public abstract class Region implements InitialisationFactory
 	{
 		this.renderType = renderType;
 		this.updateRenderStyle();
+		this.markDirty();
 	}
 	
 	public void setStyles(RenderStyle... styles)
@@ -67,6 +489,7 @@ public abstract class Region implements InitialisationFactory
 		this.styles = styles;
 		this.updateRenderStyle();
 		this.updateStyles();
+		this.markDirty();
 	}
 	
 	protected void updateRenderStyle()
@@ -0,0 +1,351 @@
+/*
+ * Copyright (c) 2011-2024 WorldEditCUI team and contributors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.enginehub.worldeditcui.render.region;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import org.enginehub.worldeditcui.render.ViewFrustum;
+import org.enginehub.worldeditcui.util.Observable;
+import org.enginehub.worldeditcui.util.Observer;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Spatial index over the multi-selection regions, so that finding the
+ * regions near the camera doesn't need to look at every region.
+ *
+ * <p>Regions are bucketed into columns of {@link #CELL_SIZE} blocks on
+ * the X and Z axes by their bounds. Regions which would cover too many
+ * cells are kept in a separate list and always tested, as are regions
+ * which are dirty and so don't know their bounds yet.</p>
+ *
+ * <p>The index observes its regions, and moves them between buckets
+ * whenever they are recompiled.</p>
+ */
+public class RegionIndex implements Observer
+{
+	private static final int CELL_SHIFT = 6;
+	public static final int CELL_SIZE = 1 << CELL_SHIFT;
+	private static final int MAX_CELLS = 64;
+
+	private static final int UNINDEXED = 0, PENDING = 1, OVERSIZED = 2, CELLS = 3;
+
+	private final Map<Region, Entry> entries = new IdentityHashMap<>();
+	private final Long2ObjectOpenHashMap<Cell> cells = new Long2ObjectOpenHashMap<>();
+	private final List<Cell> cellList = new ArrayList<>();
+	private final List<Entry> pending = new ArrayList<>();
+	private final List<Entry> oversized = new ArrayList<>();
+	private int queryStamp;
+
+	private static final class Entry
+	{
+		final Region region;
+		int state = UNINDEXED;
+		int minCellX, minCellZ, maxCellX, maxCellZ;
+		int stamp;
+
+		Entry(Region region)
+		{
+			this.region = region;
+		}
+	}
+
+	private static final class Cell
+	{
+		final long key;
+		final int x, z;
+		final List<Entry> entries = new ArrayList<>();
+		double minY = Double.POSITIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY; // grows until the cell is emptied
+		int index;
+
+		Cell(long key, int x, int z)
+		{
+			this.key = key;
+			this.x = x;
+			this.z = z;
+		}
+	}
+
+	public void add(Region region)
+	{
+		if (this.entries.containsKey(region))
+		{
+			return;
+		}
+
+		Entry entry = new Entry(region);
+		this.entries.put(region, entry);
+		region.addObserver(this);
+		this.insert(entry);
+	}
+
+	public void remove(Region region)
+	{
+		Entry entry = this.entries.remove(region);
+		if (entry != null)
+		{
+			region.removeObserver(this);
+			this.unlink(entry);
+		}
+	}
+
+	public void clear()
+	{
+		for (Region region : this.entries.keySet())
+		{
+			region.removeObserver(this);
+		}
+		this.entries.clear();
+		this.cells.clear();
+		this.cellList.clear();
+		this.pending.clear();
+		this.oversized.clear();
+	}
+
+	public int size()
+	{
+		return this.entries.size();
+	}
+
+	@Override
+	public void notifyChanged(Observable<?> source)
+	{
+		Entry entry = this.entries.get(source);
+		if (entry == null)
+		{
+			return;
+		}
+
+		if (entry.state == CELLS && !entry.region.isDirty() && entry.region.hasBounds()
+				&& cell(entry.region.getMinX()) == entry.minCellX && cell(entry.region.getMinZ()) == entry.minCellZ
+				&& cell(entry.region.getMaxX()) == entry.maxCellX && cell(entry.region.getMaxZ()) == entry.maxCellZ)
+		{
+			// still covers the same cells, usually a recompile after the camera moved
+			this.growCells(entry);
+			return;
+		}
+
+		this.unlink(entry);
+		this.insert(entry);
+	}
+
+	/**
+	 * Find the regions which may be visible and are within a distance of
+	 * the camera. Regions which are dirty are always included, as their
+	 * bounds are not known until they are compiled.
+	 *
+	 * @param cameraX the camera x position
+	 * @param cameraY the camera y position
+	 * @param cameraZ the camera z position
+	 * @param frustum the view frustum
+	 * @param distance the maximum distance, or 0 for no limit
+	 * @param out the list to add regions to
+	 */
+	public void query(double cameraX, double cameraY, double cameraZ, ViewFrustum frustum, double distance, List<Region> out)
+	{
+		final int stamp = ++this.queryStamp;
+
+		for (int i = 0, size = this.pending.size(); i < size; i++)
+		{
+			out.add(this.pending.get(i).region);
+		}
+
+		for (int i = 0, size = this.oversized.size(); i < size; i++)
+		{
+			this.test(this.oversized.get(i), cameraX, cameraY, cameraZ, frustum, distance, stamp, out);
+		}
+
+		if (distance > 0)
+		{
+			final int minCellX = cell(cameraX - distance), maxCellX = cell(cameraX + distance);
+			final int minCellZ = cell(cameraZ - distance), maxCellZ = cell(cameraZ + distance);
+			if ((long) (maxCellX - minCellX + 1) * (maxCellZ - minCellZ + 1) <= this.cellList.size())
+			{
+				for (int x = minCellX; x <= maxCellX; x++)
+				{
+					for (int z = minCellZ; z <= maxCellZ; z++)
+					{
+						Cell cell = this.cells.get(key(x, z));
+						if (cell != null)
+						{
+							this.test(cell, cameraX, cameraY, cameraZ, frustum, distance, stamp, out);
+						}
+					}
+				}
+				return;
+			}
+		}
+
+		// fewer occupied cells than are in range, so just look at all of them
+		for (int i = 0, size = this.cellList.size(); i < size; i++)
+		{
+			this.test(this.cellList.get(i), cameraX, cameraY, cameraZ, frustum, distance, stamp, out);
+		}
+	}
+
+	private void test(Cell cell, double cameraX, double cameraY, double cameraZ, ViewFrustum frustum, double distance, int stamp, List<Region> out)
+	{
+		final double minX = ((double) cell.x * CELL_SIZE) - cameraX, minZ = ((double) cell.z * CELL_SIZE) - cameraZ;
+		final double minY = cell.minY - cameraY, maxY = cell.maxY - cameraY;
+		if (!inRange(minX, minY, minZ, minX + CELL_SIZE, maxY, minZ + CELL_SIZE, distance)
+				|| !frustum.isVisible(minX, minY, minZ, minX + CELL_SIZE, maxY, minZ + CELL_SIZE))
+		{
+			return;
+		}
+
+		for (int i = 0, size = cell.entries.size(); i < size; i++)
+		{
+			this.test(cell.entries.get(i), cameraX, cameraY, cameraZ, frustum, distance, stamp, out);
+		}
+	}
+
+	private void test(Entry entry, double cameraX, double cameraY, double cameraZ, ViewFrustum frustum, double distance, int stamp, List<Region> out)
+	{
+		if (entry.stamp == stamp)
+		{
+			return; // already seen in another cell
+		}
+		entry.stamp = stamp;
+
+		final Region region = entry.region;
+		final double minX = region.getMinX() - cameraX, minY = region.getMinY() - cameraY, minZ = region.getMinZ() - cameraZ;
+		final double maxX = region.getMaxX() - cameraX, maxY = region.getMaxY() - cameraY, maxZ = region.getMaxZ() - cameraZ;
+		if (inRange(minX, minY, minZ, maxX, maxY, maxZ, distance) && frustum.isVisible(minX, minY, minZ, maxX, maxY, maxZ))
+		{
+			out.add(region);
+		}
+	}
+
+	private static boolean inRange(double minX, double minY, double minZ, double maxX, double maxY, double maxZ, double distance)
+	{
+		if (distance <= 0)
+		{
+			return true;
+		}
+
+		// distance from the camera (at the origin) to the closest point of the box
+		final double dX = Math.max(0, Math.max(minX, -maxX));
+		final double dY = Math.max(0, Math.max(minY, -maxY));
+		final double dZ = Math.max(0, Math.max(minZ, -maxZ));
+		return dX * dX + dY * dY + dZ * dZ <= distance * distance;
+	}
+
+	private void insert(Entry entry)
+	{
+		final Region region = entry.region;
+		if (region.isDirty())
+		{
+			entry.state = PENDING;
+			this.pending.add(entry);
+			return;
+		}
+
+		if (!region.hasBounds())
+		{
+			entry.state = UNINDEXED; // nothing to draw, wait until it is marked dirty again
+			return;
+		}
+
+		entry.minCellX = cell(region.getMinX());
+		entry.minCellZ = cell(region.getMinZ());
+		entry.maxCellX = cell(region.getMaxX());
+		entry.maxCellZ = cell(region.getMaxZ());
+		if ((long) (entry.maxCellX - entry.minCellX + 1) * (entry.maxCellZ - entry.minCellZ + 1) > MAX_CELLS)
+		{
+			entry.state = OVERSIZED;
+			this.oversized.add(entry);
+			return;
+		}
+
+		entry.state = CELLS;
+		for (int x = entry.minCellX; x <= entry.maxCellX; x++)
+		{
+			for (int z = entry.minCellZ; z <= entry.maxCellZ; z++)
+			{
+				final long key = key(x, z);
+				Cell cell = this.cells.get(key);
+				if (cell == null)
+				{
+					cell = new Cell(key, x, z);
+					cell.index = this.cellList.size();
+					this.cells.put(key, cell);
+					this.cellList.add(cell);
+				}
+				cell.entries.add(entry);
+			}
+		}
+		this.growCells(entry);
+	}
+
+	private void growCells(Entry entry)
+	{
+		final double minY = entry.region.getMinY(), maxY = entry.region.getMaxY();
+		for (int x = entry.minCellX; x <= entry.maxCellX; x++)
+		{
+			for (int z = entry.minCellZ; z <= entry.maxCellZ; z++)
+			{
+				final Cell cell = this.cells.get(key(x, z));
+				cell.minY = Math.min(cell.minY, minY);
+				cell.maxY = Math.max(cell.maxY, maxY);
+			}
+		}
+	}
+
+	private void unlink(Entry entry)
+	{
+		switch (entry.state)
+		{
+			case PENDING -> this.pending.remove(entry);
+			case OVERSIZED -> this.oversized.remove(entry);
+			case CELLS ->
+			{
+				for (int x = entry.minCellX; x <= entry.maxCellX; x++)
+				{
+					for (int z = entry.minCellZ; z <= entry.maxCellZ; z++)
+					{
+						final Cell cell = this.cells.get(key(x, z));
+						cell.entries.remove(entry);
+						if (cell.entries.isEmpty())
+						{
+							this.removeCell(cell);
+						}
+					}
+				}
+			}
+			default -> { }
+		}
+		entry.state = UNINDEXED;
+	}
+
+	private void removeCell(Cell cell)
+	{
+		this.cells.remove(cell.key);
+
+		// swap the last cell into the removed one's place
+		final Cell last = this.cellList.remove(this.cellList.size() - 1);
+		if (last != cell)
+		{
+			last.index = cell.index;
+			this.cellList.set(cell.index, last);
+		}
+	}
+
+	private static int cell(double coordinate)
+	{
+		return (int) Math.floor(coordinate) >> CELL_SHIFT;
+	}
+
+	private static long key(int x, int z)
+	{
+		return ((long) x << 32) | (z & 0xFFFFFFFFL);
+	}
+}
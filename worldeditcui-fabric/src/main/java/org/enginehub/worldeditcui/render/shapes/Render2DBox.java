@@ -10,7 +10,6 @@
 package org.enginehub.worldeditcui.render.shapes;
 
 import org.enginehub.worldeditcui.event.listeners.CUIRenderContext;
-import org.enginehub.worldeditcui.render.LineStyle;
 import org.enginehub.worldeditcui.render.RenderStyle;
 import org.enginehub.worldeditcui.render.points.PointRectangle;
 import org.enginehub.worldeditcui.util.Vector2;
@@ -27,7 +26,7 @@ import java.util.List;
 public class Render2DBox extends RenderRegion
 {
 	private final List<PointRectangle> points;
-	private final int min, max;
+	private int min, max;
 	
 	public Render2DBox(RenderStyle style, List<PointRectangle> points, int min, int max)
 	{
@@ -37,32 +36,31 @@ public class Render2DBox extends RenderRegion
 		this.max = max;
 	}
 	
+	public void setMinMax(int min, int max)
+	{
+		this.min = min;
+		this.max = max;
+	}
+	
 	@Override
 	public void render(CUIRenderContext ctx)
 	{
 		double off = 0.03 - ctx.cameraPos().getY();
-		for (LineStyle line : this.style.getLines())
-		{
-			if (!ctx.apply(line, this.style.getRenderType()))
-			{
-				continue;
-			}
+		ctx.beginShape();
+		ctx.beginLines();
 
-			ctx.beginLines();
-			ctx.color(line);
-
-			for (PointRectangle point : this.points)
+		for (PointRectangle point : this.points)
+		{
+			if (point != null)
 			{
-				if (point != null)
-				{
-					Vector2 pos = point.getPoint();
-					double x = pos.getX() - ctx.cameraPos().getX();
-					double z = pos.getY() - ctx.cameraPos().getZ();
-					ctx.vertex(x + 0.5, this.min + off, z + 0.5)
-						.vertex(x + 0.5, this.max + 1 + off, z + 0.5);
-				}
+				Vector2 pos = point.getPoint();
+				double x = pos.getX() - ctx.cameraPos().getX();
+				double z = pos.getY() - ctx.cameraPos().getZ();
+				ctx.vertex(x + 0.5, this.min + off, z + 0.5)
+					.vertex(x + 0.5, this.max + 1 + off, z + 0.5);
 			}
-			ctx.endLines();
 		}
+		ctx.endLines();
+		ctx.endShape(this.style);
 	}
 }
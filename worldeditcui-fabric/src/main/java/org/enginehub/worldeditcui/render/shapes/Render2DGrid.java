@@ -10,7 +10,6 @@
 package org.enginehub.worldeditcui.render.shapes;
 
 import org.enginehub.worldeditcui.event.listeners.CUIRenderContext;
-import org.enginehub.worldeditcui.render.LineStyle;
 import org.enginehub.worldeditcui.render.RenderStyle;
 import org.enginehub.worldeditcui.render.points.PointRectangle;
 import org.enginehub.worldeditcui.util.Vector2;
@@ -27,7 +26,8 @@ import java.util.List;
 public class Render2DGrid extends RenderRegion
 {
 	private final List<PointRectangle> points;
-	private final int min, max;
+	private int min, max;
+	private int layerRange;
 	
 	public Render2DGrid(RenderStyle style, List<PointRectangle> points, int min, int max)
 	{
@@ -37,38 +37,75 @@ public class Render2DGrid extends RenderRegion
 		this.max = max;
 	}
 	
+	public void setMinMax(int min, int max)
+	{
+		this.min = min;
+		this.max = max;
+	}
+	
+	/**
+	 * Set how far above and below the camera layers are drawn. The top and
+	 * bottom layers are always drawn, since they outline the region.
+	 * 
+	 * @param layerRange the range in blocks, or 0 to draw every layer
+	 */
+	public void setLayerRange(int layerRange)
+	{
+		this.layerRange = layerRange;
+	}
+	
 	@Override
 	public void render(CUIRenderContext ctx)
+	{
+		ctx.beginShape();
+		this.drawLayers(ctx);
+		ctx.endShape(this.style);
+	}
+	
+	private void drawLayers(CUIRenderContext ctx)
 	{
 		double off = 0.03;
-		for (double height = this.min; height <= this.max + 1; height++)
+		int top = this.max + 1;
+		if (this.layerRange <= 0)
 		{
-			this.drawPoly(ctx, height + off);
+			for (double height = this.min; height <= top; height++)
+			{
+				this.drawPoly(ctx, height + off);
+			}
+			return;
+		}
+		
+		final double cameraY = ctx.cameraPos().getY();
+		final int from = Math.max(this.min + 1, (int)Math.ceil(cameraY - this.layerRange));
+		final int to = Math.min(top - 1, (int)Math.floor(cameraY + this.layerRange));
+		
+		this.drawPoly(ctx, this.min + off);
+		for (int height = from; height <= to; height++)
+		{
+			if (isLayerDrawn(height, Math.abs(height - cameraY), this.layerRange))
+			{
+				this.drawPoly(ctx, height + off);
+			}
+		}
+		if (top > this.min)
+		{
+			this.drawPoly(ctx, top + off);
 		}
 	}
 	
 	protected void drawPoly(final CUIRenderContext ctx, double height)
 	{
-		for (LineStyle line : this.style.getLines())
+		ctx.beginLineLoop();
+		for (PointRectangle point : this.points)
 		{
-			if (!ctx.apply(line, this.style.getRenderType()))
-			{
-				continue;
-			}
-
-			ctx.color(line);
-			ctx.beginLineLoop();
-			for (PointRectangle point : this.points)
+			if (point != null)
 			{
-				if (point != null)
-				{
-					Vector2 pos = point.getPoint();
-					double x = pos.getX() - ctx.cameraPos().getX();
-					double z = pos.getY() - ctx.cameraPos().getZ();
-					ctx.vertex(x + 0.5, height - ctx.cameraPos().getY(), z + 0.5);
-				}
+				Vector2 pos = point.getPoint();
+				double x = pos.getX() - ctx.cameraPos().getX();
+				double z = pos.getY() - ctx.cameraPos().getZ();
+				ctx.vertex(x + 0.5, height - ctx.cameraPos().getY(), z + 0.5);
 			}
-			ctx.endLineLoop();
 		}
+		ctx.endLineLoop();
 	}
 }
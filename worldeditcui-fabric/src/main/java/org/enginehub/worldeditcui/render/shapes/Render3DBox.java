@@ -10,7 +10,6 @@
 package org.enginehub.worldeditcui.render.shapes;
 
 import org.enginehub.worldeditcui.event.listeners.CUIRenderContext;
-import org.enginehub.worldeditcui.render.LineStyle;
 import org.enginehub.worldeditcui.render.RenderStyle;
 import org.enginehub.worldeditcui.util.BoundingBox;
 import org.enginehub.worldeditcui.util.Observable;
@@ -73,44 +72,39 @@ public class Render3DBox extends RenderRegion
 		double y2 = this.second.getY() - camera.getY();
 		double z2 = this.second.getZ() - camera.getZ();
 		
-		for (LineStyle line : this.style.getLines())
-		{
-			if (!ctx.apply(line, this.style.getRenderType()))
-			{
-				continue;
-			}
-			
-			// Draw bottom face
-			ctx.color(line);
-			ctx.beginLineLoop()
-				.vertex(x1, y1, z1)
-				.vertex(x2, y1, z1)
-				.vertex(x2, y1, z2)
-				.vertex(x1, y1, z2)
-				.endLineLoop();
+		ctx.beginShape();
+		
+		// Draw bottom face
+		ctx.beginLineLoop()
+			.vertex(x1, y1, z1)
+			.vertex(x2, y1, z1)
+			.vertex(x2, y1, z2)
+			.vertex(x1, y1, z2)
+			.endLineLoop();
 
-			// Draw top face
-			ctx.beginLineLoop()
+		// Draw top face
+		ctx.beginLineLoop()
 			.vertex(x1, y2, z1)
 			.vertex(x2, y2, z1)
 			.vertex(x2, y2, z2)
 			.vertex(x1, y2, z2)
 			.endLineLoop();
 
-			// Draw join top and bottom faces
-			ctx.beginLines()
-				.vertex(x1, y1, z1)
-				.vertex(x1, y2, z1)
+		// Draw join top and bottom faces
+		ctx.beginLines()
+			.vertex(x1, y1, z1)
+			.vertex(x1, y2, z1)
 
-				.vertex(x2, y1, z1)
-				.vertex(x2, y2, z1)
+			.vertex(x2, y1, z1)
+			.vertex(x2, y2, z1)
 
-				.vertex(x2, y1, z2)
-				.vertex(x2, y2, z2)
+			.vertex(x2, y1, z2)
+			.vertex(x2, y2, z2)
 
-				.vertex(x1, y1, z2)
-				.vertex(x1, y2, z2)
-				.endLines();
-		}
+			.vertex(x1, y1, z2)
+			.vertex(x1, y2, z2)
+			.endLines();
+		
+		ctx.endShape(this.style);
 	}
 }
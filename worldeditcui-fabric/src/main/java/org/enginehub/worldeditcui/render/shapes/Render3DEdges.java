@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2011-2024 WorldEditCUI team and contributors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.enginehub.worldeditcui.render.shapes;
+
+import org.enginehub.worldeditcui.event.listeners.CUIRenderContext;
+import org.enginehub.worldeditcui.render.RenderStyle;
+import org.enginehub.worldeditcui.util.Vector3;
+
+import java.util.Arrays;
+
+/**
+ * Draws a set of separate edges as a single batch of lines
+ */
+public class Render3DEdges extends RenderRegion
+{
+	private double[] edges = new double[6 * 16];
+	private int size;
+
+	public Render3DEdges(RenderStyle style)
+	{
+		super(style);
+	}
+
+	public void addEdge(Vector3 start, Vector3 end)
+	{
+		if (this.size == this.edges.length)
+		{
+			this.edges = Arrays.copyOf(this.edges, this.size * 2);
+		}
+
+		this.edges[this.size++] = start.getX();
+		this.edges[this.size++] = start.getY();
+		this.edges[this.size++] = start.getZ();
+		this.edges[this.size++] = end.getX();
+		this.edges[this.size++] = end.getY();
+		this.edges[this.size++] = end.getZ();
+	}
+
+	@Override
+	public void render(CUIRenderContext ctx)
+	{
+		if (this.size == 0)
+		{
+			return;
+		}
+
+		final double cameraX = ctx.cameraPos().getX();
+		final double cameraY = ctx.cameraPos().getY();
+		final double cameraZ = ctx.cameraPos().getZ();
+
+		ctx.beginShape();
+		ctx.beginLines();
+		for (int i = 0; i < this.size; i += 3)
+		{
+			ctx.vertex(this.edges[i] - cameraX, this.edges[i + 1] - cameraY, this.edges[i + 2] - cameraZ);
+		}
+		ctx.endLines();
+		ctx.endShape(this.style);
+	}
+}
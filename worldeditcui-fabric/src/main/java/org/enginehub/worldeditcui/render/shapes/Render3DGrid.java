@@ -9,11 +9,8 @@
  */
 package org.enginehub.worldeditcui.render.shapes;
 
-import com.mojang.blaze3d.opengl.GlStateManager;
-import com.mojang.blaze3d.systems.RenderSystem;
 import net.minecraft.util.Mth;
 import org.enginehub.worldeditcui.event.listeners.CUIRenderContext;
-import org.enginehub.worldeditcui.render.LineStyle;
 import org.enginehub.worldeditcui.render.RenderStyle;
 import org.enginehub.worldeditcui.util.BoundingBox;
 import org.enginehub.worldeditcui.util.Observable;
@@ -31,9 +28,11 @@ public class Render3DGrid extends RenderRegion
 	private static final float CULL_RANGE = 128.0F;
 	private static final double SKIP_THRESHOLD = 0.25f; // don't render another band if there is less than this amount left
 	public static final double MIN_SPACING = 1.0;
+	private static final int MAX_SPACING_FACTOR = 1 << 20;
 	
 	private Vector3 first, second;
 	private double spacing = 1.0;
+	private int minLinePixels;
 
 	public static Render3DGrid region3dGrid(final RenderStyle style, final BoundingBox region)
 	{
@@ -75,6 +74,19 @@ public class Render3DGrid extends RenderRegion
 		return this;
 	}
 	
+	/**
+	 * Set the closest lines may be drawn to each other on screen. Further
+	 * from the camera, only every second, fourth, and so on line is drawn
+	 * to keep them apart.
+	 * 
+	 * @param minLinePixels the distance in pixels, or 0 to draw every line
+	 */
+	public Render3DGrid setMinLinePixels(int minLinePixels)
+	{
+		this.minLinePixels = minLinePixels;
+		return this;
+	}
+	
 	@Override
 	public void render(CUIRenderContext ctx)
 	{
@@ -88,33 +100,16 @@ public class Render3DGrid extends RenderRegion
 
 		if (this.spacing != 1.0)
 		{
-			GlStateManager._disableCull();
-
-			double[] vertices = {
-					x1, y1, z1,  x2, y1, z1,  x2, y1, z2,  x1, y1, z2, // bottom
-					x1, y2, z1,  x2, y2, z1,  x2, y2, z2,  x1, y2, z2, // top
-					x1, y1, z1,  x1, y1, z2,  x1, y2, z2,  x1, y2, z1, // west
-					x2, y1, z1,  x2, y2, z1,  x2, y2, z2,  x2, y1, z2, // east
-					x1, y1, z1,  x1, y2, z1,  x2, y2, z1,  x2, y1, z1, // north
-					x1, y1, z2,  x2, y1, z2,  x2, y2, z2,  x1, y2, z2  // south
-			};
-
-			for (LineStyle line : this.style.getLines())
-			{
-				if (ctx.apply(line, this.style.getRenderType()))
-				{
-					ctx.color(line, 0.25f)
-						.beginQuads();
-					for (int i = 0; i < vertices.length; i += 3)
-					{
-						ctx.vertex(vertices[i], vertices[i + 1], vertices[i + 2]);
-					}
-					ctx.endQuads();
-				}
-			}
-
-			ctx.flush(); // todo: only needed because of disable/enable cull
-			GlStateManager._enableCull();
+			ctx.beginShape();
+			ctx.beginQuads();
+			ctx.vertex(x1, y1, z1).vertex(x2, y1, z1).vertex(x2, y1, z2).vertex(x1, y1, z2); // bottom
+			ctx.vertex(x1, y2, z1).vertex(x2, y2, z1).vertex(x2, y2, z2).vertex(x1, y2, z2); // top
+			ctx.vertex(x1, y1, z1).vertex(x1, y1, z2).vertex(x1, y2, z2).vertex(x1, y2, z1); // west
+			ctx.vertex(x2, y1, z1).vertex(x2, y2, z1).vertex(x2, y2, z2).vertex(x2, y1, z2); // east
+			ctx.vertex(x1, y1, z1).vertex(x1, y2, z1).vertex(x2, y2, z1).vertex(x2, y1, z1); // north
+			ctx.vertex(x1, y1, z2).vertex(x2, y1, z2).vertex(x2, y2, z2).vertex(x1, y2, z2); // south
+			ctx.endQuads();
+			ctx.endShape(this.style, 0.25f);
 		}
 		
 		if (this.spacing < Render3DGrid.MIN_SPACING)
@@ -122,75 +117,189 @@ public class Render3DGrid extends RenderRegion
 			return;
 		}
 		
+		if (this.minLinePixels > 0 && ctx.frustum().pixelScale() > 0)
+		{
+			this.renderAdaptive(ctx, x1, y1, z1, x2, y2, z2);
+			return;
+		}
+		
 		final double cullAt = Render3DGrid.CULL_RANGE * this.spacing;
 		final double cullAtY = cullAt - Mth.frac(y1);
 		final double cullAtX = cullAt - Mth.frac(x1);
 		final double cullAtZ = cullAt - Mth.frac(z1);
-		for (LineStyle line : this.style.getLines())
+		ctx.beginShape();
+		ctx.beginLines();
+
+		final double yEnd = Math.min(y2 + OFFSET, cullAtY);
+		for (double y = Math.max(y1, -cullAtY) + OFFSET; y <= yEnd; y += this.spacing)
 		{
-			if (!ctx.apply(line, this.style.getRenderType()))
+			if (yEnd - y < SKIP_THRESHOLD)
 			{
 				continue;
 			}
-			
-			ctx.color(line)
-				.beginLines();
 
-			final double yEnd = Math.min(y2 + OFFSET, cullAtY);
-			for (double y = Math.max(y1, -cullAtY) + OFFSET; y <= yEnd; y += this.spacing)
-			{
-				if (yEnd - y < SKIP_THRESHOLD)
-				{
-					continue;
-				}
+			ctx.vertex(x1, y, z2)
+				.vertex(x2, y, z2)
+				.vertex(x1, y, z1)
+				.vertex(x2, y, z1)
+				.vertex(x1, y, z1)
+				.vertex(x1, y, z2)
+				.vertex(x2, y, z1)
+				.vertex(x2, y, z2);
+		}
 
-				ctx.vertex(x1, y, z2)
-					.vertex(x2, y, z2)
-					.vertex(x1, y, z1)
-					.vertex(x2, y, z1)
-					.vertex(x1, y, z1)
-					.vertex(x1, y, z2)
-					.vertex(x2, y, z1)
-					.vertex(x2, y, z2);
+		final double xEnd = Math.min(x2, cullAtX);
+		for (double x = Math.max(x1, -cullAtX); x <= xEnd; x += this.spacing)
+		{
+			if (xEnd - x < SKIP_THRESHOLD)
+			{
+				continue;
 			}
 
-			final double xEnd = Math.min(x2, cullAtX);
-			for (double x = Math.max(x1, -cullAtX); x <= xEnd; x += this.spacing)
-			{
-				if (xEnd - x < SKIP_THRESHOLD)
-				{
-					continue;
-				}
+			ctx.vertex(x, y1, z1)
+				.vertex(x, y2, z1)
+				.vertex(x, y1, z2)
+				.vertex(x, y2, z2)
+				.vertex(x, y2, z1)
+				.vertex(x, y2, z2)
+				.vertex(x, y1, z1)
+				.vertex(x, y1, z2);
+		}
 
-				ctx.vertex(x, y1, z1)
-					.vertex(x, y2, z1)
-					.vertex(x, y1, z2)
-					.vertex(x, y2, z2)
-					.vertex(x, y2, z1)
-					.vertex(x, y2, z2)
-					.vertex(x, y1, z1)
-					.vertex(x, y1, z2);
+		final double zEnd = Math.min(z2, cullAtZ);
+		for (double z = Math.max(z1, -cullAtZ); z <= zEnd; z += this.spacing)
+		{
+			if (zEnd - z < SKIP_THRESHOLD)
+			{
+				continue;
 			}
 
-			final double zEnd = Math.min(z2, cullAtZ);
-			for (double z = Math.max(z1, -cullAtZ); z <= zEnd; z += this.spacing)
-			{
-				if (zEnd - z < SKIP_THRESHOLD)
-				{
-					continue;
-				}
+			ctx.vertex(x1, y1, z)
+				.vertex(x2, y1, z)
+				.vertex(x1, y2, z)
+				.vertex(x2, y2, z)
+				.vertex(x2, y1, z)
+				.vertex(x2, y2, z)
+				.vertex(x1, y1, z)
+				.vertex(x1, y2, z);
+		}
 
-				ctx.vertex(x1, y1, z)
-					.vertex(x2, y1, z)
-					.vertex(x1, y2, z)
-					.vertex(x2, y2, z)
-					.vertex(x2, y1, z)
-					.vertex(x2, y2, z)
-					.vertex(x1, y1, z)
-					.vertex(x1, y2, z);
+		ctx.endLines();
+		ctx.endShape(this.style);
+	}
+	
+	private void renderAdaptive(CUIRenderContext ctx, double x1, double y1, double z1, double x2, double y2, double z2)
+	{
+		// the distance to the nearest point of each axis' cross-section, which the lines run around
+		final double acrossX = distance(y1, y2, z1, z2);
+		final double acrossY = distance(x1, x2, z1, z2);
+		final double acrossZ = distance(x1, x2, y1, y2);
+		final double minSpacing = this.minLinePixels / ctx.frustum().pixelScale();
+		
+		ctx.beginShape();
+		ctx.beginLines();
+		
+		final int countY = (int)Math.floor((y2 - y1) / this.spacing);
+		for (int k = 0; k <= countY; k++)
+		{
+			final double y = y1 + k * this.spacing;
+			final int factor = this.spacingFactor(y, acrossY, minSpacing);
+			if ((k & (factor - 1)) != 0)
+			{
+				k = (k | (factor - 1)); // skip to the next multiple
+				continue;
 			}
-
-			ctx.endLines();
+			if (y2 - y < SKIP_THRESHOLD)
+			{
+				continue;
+			}
+			
+			final double yLine = y + OFFSET;
+			ctx.vertex(x1, yLine, z2)
+				.vertex(x2, yLine, z2)
+				.vertex(x1, yLine, z1)
+				.vertex(x2, yLine, z1)
+				.vertex(x1, yLine, z1)
+				.vertex(x1, yLine, z2)
+				.vertex(x2, yLine, z1)
+				.vertex(x2, yLine, z2);
+		}
+		
+		final int countX = (int)Math.floor((x2 - x1) / this.spacing);
+		for (int k = 0; k <= countX; k++)
+		{
+			final double x = x1 + k * this.spacing;
+			final int factor = this.spacingFactor(x, acrossX, minSpacing);
+			if ((k & (factor - 1)) != 0)
+			{
+				k = (k | (factor - 1));
+				continue;
+			}
+			if (x2 - x < SKIP_THRESHOLD)
+			{
+				continue;
+			}
+			
+			ctx.vertex(x, y1, z1)
+				.vertex(x, y2, z1)
+				.vertex(x, y1, z2)
+				.vertex(x, y2, z2)
+				.vertex(x, y2, z1)
+				.vertex(x, y2, z2)
+				.vertex(x, y1, z1)
+				.vertex(x, y1, z2);
+		}
+		
+		final int countZ = (int)Math.floor((z2 - z1) / this.spacing);
+		for (int k = 0; k <= countZ; k++)
+		{
+			final double z = z1 + k * this.spacing;
+			final int factor = this.spacingFactor(z, acrossZ, minSpacing);
+			if ((k & (factor - 1)) != 0)
+			{
+				k = (k | (factor - 1));
+				continue;
+			}
+			if (z2 - z < SKIP_THRESHOLD)
+			{
+				continue;
+			}
+			
+			ctx.vertex(x1, y1, z)
+				.vertex(x2, y1, z)
+				.vertex(x1, y2, z)
+				.vertex(x2, y2, z)
+				.vertex(x2, y1, z)
+				.vertex(x2, y2, z)
+				.vertex(x1, y1, z)
+				.vertex(x1, y2, z);
 		}
+		
+		ctx.endLines();
+		ctx.endShape(this.style);
+	}
+	
+	/**
+	 * Get how many grid lines to advance by at a position, so that lines
+	 * stay far enough apart on screen. Like a mip map, this is always a
+	 * power of two, so the lines drawn further away are a subset of those
+	 * drawn close by.
+	 */
+	private int spacingFactor(double position, double across, double minSpacing)
+	{
+		final double distance = Math.sqrt(position * position + across * across);
+		final double factor = minSpacing * distance / this.spacing;
+		if (factor <= 1.0)
+		{
+			return 1;
+		}
+		return factor >= MAX_SPACING_FACTOR ? MAX_SPACING_FACTOR : Mth.smallestEncompassingPowerOfTwo((int)Math.ceil(factor));
+	}
+	
+	private static double distance(double min1, double max1, double min2, double max2)
+	{
+		final double d1 = Math.max(0, Math.max(min1, -max1));
+		final double d2 = Math.max(0, Math.max(min2, -max2));
+		return Math.sqrt(d1 * d1 + d2 * d2);
 	}
 }
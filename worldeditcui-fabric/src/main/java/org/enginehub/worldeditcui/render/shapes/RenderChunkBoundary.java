@@ -17,11 +17,20 @@ import org.enginehub.worldeditcui.event.listeners.CUIRenderContext;
 import org.enginehub.worldeditcui.render.LineStyle;
 import org.enginehub.worldeditcui.render.RenderStyle;
 import org.enginehub.worldeditcui.util.Vector3;
+import org.enginehub.worldeditcui.util.Vector3m;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
 
 public class RenderChunkBoundary extends RenderRegion
 {
 	private final Minecraft mc;
 	private final Render3DGrid grid;
+	private final Consumer<CUIRenderContext> renderGrid;
+	
+	// reused every frame
+	private final Vector3m gridMin = new Vector3m(), gridMax = new Vector3m(), gridCamera = new Vector3m();
+	private final int[] lastHeight = new int[4];
 
 	public RenderChunkBoundary(final RenderStyle boundaryStyle, final RenderStyle gridStyle, final Minecraft minecraft)
 	{
@@ -31,6 +40,7 @@ public class RenderChunkBoundary extends RenderRegion
 
 		this.grid = new Render3DGrid(gridStyle, Vector3.ZERO, Vector3.ZERO);
 		this.grid.setSpacing(4.0);
+		this.renderGrid = this.grid::render;
 	}
 
 	@Override
@@ -48,28 +58,21 @@ public class RenderChunkBoundary extends RenderRegion
 		final double xBase = 0 - (xBlock - (xChunk * 16)) - (ctx.cameraPos().getX() - xBlock);
 		final double zBase = (0 - (zBlock - (zChunk * 16)) - (ctx.cameraPos().getZ() - zBlock)) + 16;
 
-		this.grid.setPosition(new Vector3(xBase - OFFSET, yMin, zBase - 16 - OFFSET), new Vector3(xBase + 16 + OFFSET, yMax, zBase + OFFSET));
-
-		ctx.flush();
-		ctx.matrixStack().pushMatrix();
-		ctx.matrixStack().translate(0.0f, (float) -ctx.cameraPos().getY(), 0.0f);
-		ctx.applyMatrices();
+		this.grid.setPosition(this.gridMin.set(xBase - OFFSET, yMin, zBase - 16 - OFFSET), this.gridMax.set(xBase + 16 + OFFSET, yMax, zBase + OFFSET));
 
-		ctx.withCameraAt(Vector3.ZERO, this.grid::render);
+		// horizontal positions are already relative to the camera, vertical ones are not
+		final double yCamera = ctx.cameraPos().getY();
+		ctx.withCameraAt(this.gridCamera.set(0.0, yCamera, 0.0), this.renderGrid);
 
-		this.renderChunkBorder(ctx, yMin, yMax, xBase, zBase);
+		this.renderChunkBorder(ctx, yMin, yMax, xBase, zBase, yCamera);
 
 		if (this.mc.level != null)
 		{
-			this.renderChunkBoundary(ctx, xChunk, zChunk, xBase, zBase);
+			this.renderChunkBoundary(ctx, xChunk, zChunk, xBase, zBase, yCamera);
 		}
-
-		ctx.flush();
-		ctx.matrixStack().popMatrix();
-		ctx.applyMatrices();
 	}
 
-	private void renderChunkBorder(final CUIRenderContext ctx, final double yMin, final double yMax, final double xBase, final double zBase)
+	private void renderChunkBorder(final CUIRenderContext ctx, final double yMin, final double yMax, final double xBase, final double zBase, final double yCamera)
 	{
 		final int spacing = 16;
 
@@ -84,21 +87,22 @@ public class RenderChunkBoundary extends RenderRegion
 				{
 					for (int z = -16; z <= 32; z += spacing)
 					{
-						ctx.vertex(xBase + x, yMin, zBase - z)
-							.vertex(xBase + x, yMax, zBase - z);
+						ctx.vertex(xBase + x, yMin - yCamera, zBase - z)
+							.vertex(xBase + x, yMax - yCamera, zBase - z);
 					}
 				}
 
 				for (double y = yMin; y <= yMax; y += yMax)
 				{
-					ctx.vertex(xBase, y, zBase)
-						.vertex(xBase, y, zBase - 16)
-						.vertex(xBase, y, zBase - 16)
-						.vertex(xBase + 16, y, zBase - 16)
-						.vertex(xBase + 16, y, zBase - 16)
-						.vertex(xBase + 16, y, zBase)
-						.vertex(xBase + 16, y, zBase)
-						.vertex(xBase, y, zBase);
+					final double yRel = y - yCamera;
+					ctx.vertex(xBase, yRel, zBase)
+						.vertex(xBase, yRel, zBase - 16)
+						.vertex(xBase, yRel, zBase - 16)
+						.vertex(xBase + 16, yRel, zBase - 16)
+						.vertex(xBase + 16, yRel, zBase - 16)
+						.vertex(xBase + 16, yRel, zBase)
+						.vertex(xBase + 16, yRel, zBase)
+						.vertex(xBase, yRel, zBase);
 				}
 
 				ctx.endLines();
@@ -106,7 +110,7 @@ public class RenderChunkBoundary extends RenderRegion
 		}
 	}
 
-	private void renderChunkBoundary(final CUIRenderContext ctx, final int xChunk, final int zChunk, final double xBase, final double zBase)
+	private void renderChunkBoundary(final CUIRenderContext ctx, final int xChunk, final int zChunk, final double xBase, final double zBase, final double yCamera)
 	{
 		final ChunkAccess chunk = this.mc.level.getChunk(xChunk, zChunk);
 		final Heightmap heightMap = chunk.getOrCreateHeightmapUnprimed(Heightmap.Types.WORLD_SURFACE);
@@ -118,7 +122,8 @@ public class RenderChunkBoundary extends RenderRegion
 				ctx.beginLines()
 						.color(line);
 
-				final int[][] lastHeight = { { -1, -1 }, { -1, -1 } };
+				final int[] lastHeight = this.lastHeight; // indexed by axis * 2 + j
+				Arrays.fill(lastHeight, -1);
 				for (int i = 0, height = 0; i < 16; i++)
 				{
 					for (int j = 0; j < 2; j++)
@@ -128,14 +133,14 @@ public class RenderChunkBoundary extends RenderRegion
 							height = axis == 0 ? heightMap.getFirstAvailable(j * 15, i) : heightMap.getFirstAvailable(i, j * 15);
 							final double xPos = axis == 0 ? xBase + (j * 16) : xBase + i;
 							final double zPos = axis == 0 ? zBase - 16 + i : zBase - 16 + (j * 16);
-							if (lastHeight[axis][j] > -1 && height != lastHeight[axis][j])
+							if (lastHeight[axis * 2 + j] > -1 && height != lastHeight[axis * 2 + j])
 							{
-								ctx.vertex(xPos, lastHeight[axis][j] + OFFSET, zPos)
-									.vertex(xPos, height + OFFSET, zPos);
+								ctx.vertex(xPos, lastHeight[axis * 2 + j] + OFFSET - yCamera, zPos)
+									.vertex(xPos, height + OFFSET - yCamera, zPos);
 							}
-							ctx.vertex(xPos, height + OFFSET, zPos)
-								.vertex(xPos + axis, height + OFFSET, zPos + (1 - axis));
-							lastHeight[axis][j] = height;
+							ctx.vertex(xPos, height + OFFSET - yCamera, zPos)
+								.vertex(xPos + axis, height + OFFSET - yCamera, zPos + (1 - axis));
+							lastHeight[axis * 2 + j] = height;
 						}
 					}
 				}
@@ -10,7 +10,6 @@
 package org.enginehub.worldeditcui.render.shapes;
 
 import org.enginehub.worldeditcui.event.listeners.CUIRenderContext;
-import org.enginehub.worldeditcui.render.LineStyle;
 import org.enginehub.worldeditcui.render.RenderStyle;
 import org.enginehub.worldeditcui.render.points.PointCube;
 
@@ -44,29 +43,9 @@ public class RenderCylinderBox extends RenderRegion
 		double xPos = this.centreX - ctx.cameraPos().getX();
 		double zPos = this.centreZ - ctx.cameraPos().getZ();
 
-		for (LineStyle line : this.style.getLines())
-		{
-			if (!ctx.apply(line, this.style.getRenderType()))
-			{
-				continue;
-			}
-			
-			double twoPi = Math.PI * 2;
-			ctx.color(line);
-			for (int yBlock : new int[] { this.minY, this.maxY + 1 })
-			{
-				ctx.beginLineLoop();
-				for (int i = 0; i <= 75; i++)
-				{
-					double tempTheta = i * twoPi / 75;
-					double tempX = this.radX * Math.cos(tempTheta);
-					double tempZ = this.radZ * Math.sin(tempTheta);
-
-					ctx.vertex(xPos + tempX, yBlock - ctx.cameraPos().getY(), zPos + tempZ);
-				}
-
-				ctx.endLineLoop();
-			}
-		}
+		ctx.beginShape();
+		ring(ctx, xPos, this.minY - ctx.cameraPos().getY(), zPos, this.radX, this.radZ);
+		ring(ctx, xPos, this.maxY + 1 - ctx.cameraPos().getY(), zPos, this.radX, this.radZ);
+		ctx.endShape(this.style);
 	}
 }
@@ -10,7 +10,6 @@
 package org.enginehub.worldeditcui.render.shapes;
 
 import org.enginehub.worldeditcui.event.listeners.CUIRenderContext;
-import org.enginehub.worldeditcui.render.LineStyle;
 import org.enginehub.worldeditcui.render.RenderStyle;
 import org.enginehub.worldeditcui.render.points.PointCube;
 
@@ -28,6 +27,7 @@ public class RenderCylinderCircles extends RenderRegion
 	private final int maxY;
 	private final double centreX;
 	private final double centreZ;
+	private int layerRange;
 	
 	public RenderCylinderCircles(RenderStyle style, PointCube centre, double radX, double radZ, int minY, int maxY)
 	{
@@ -40,36 +40,39 @@ public class RenderCylinderCircles extends RenderRegion
 		this.centreZ = centre.getPoint().getZ() + 0.5;
 	}
 
+	/**
+	 * Set how far above and below the camera rings are drawn.
+	 * 
+	 * @param layerRange the range in blocks, or 0 for no limit
+	 */
+	public void setLayerRange(int layerRange)
+	{
+		this.layerRange = layerRange;
+	}
+	
 	@Override
 	public void render(CUIRenderContext ctx)
 	{
 		double xPos = this.centreX - ctx.cameraPos().getX();
 		double zPos = this.centreZ - ctx.cameraPos().getZ();
+		final double cameraY = ctx.cameraPos().getY();
 		
-		for (LineStyle line : this.style.getLines())
+		int from = this.minY + 1;
+		int to = this.maxY;
+		if (this.layerRange > 0)
 		{
-			if (!ctx.apply(line, this.style.getRenderType()))
-			{
-				continue;
-			}
-			
-			double twoPi = Math.PI * 2;
-			ctx.color(line);
-			for (int yBlock = this.minY + 1; yBlock <= this.maxY; yBlock++)
+			from = Math.max(from, (int)Math.ceil(cameraY - this.layerRange));
+			to = Math.min(to, (int)Math.floor(cameraY + this.layerRange));
+		}
+		
+		ctx.beginShape();
+		for (int yBlock = from; yBlock <= to; yBlock++)
+		{
+			if (isLayerDrawn(yBlock, Math.abs(yBlock - cameraY), this.layerRange))
 			{
-				ctx.beginLineLoop();
-
-				for (int i = 0; i <= 75; i++)
-				{
-					double tempTheta = i * twoPi / 75;
-					double tempX = this.radX * Math.cos(tempTheta);
-					double tempZ = this.radZ * Math.sin(tempTheta);
-					
-					ctx.vertex(xPos + tempX, yBlock - ctx.cameraPos().getY(), zPos + tempZ);
-				}
-
-				ctx.endLineLoop();
+				ring(ctx, xPos, yBlock - cameraY, zPos, this.radX, this.radZ);
 			}
 		}
+		ctx.endShape(this.style);
 	}
 }
@@ -10,7 +10,6 @@
 package org.enginehub.worldeditcui.render.shapes;
 
 import org.enginehub.worldeditcui.event.listeners.CUIRenderContext;
-import org.enginehub.worldeditcui.render.LineStyle;
 import org.enginehub.worldeditcui.render.RenderStyle;
 import org.enginehub.worldeditcui.render.points.PointCube;
 
@@ -28,6 +27,7 @@ public class RenderCylinderGrid extends RenderRegion
 	private final int maxY;
 	private final double centreX;
 	private final double centreZ;
+	private int layerRange;
 	
 	public RenderCylinderGrid(RenderStyle style, PointCube centre, double radX, double radZ, int minY, int maxY)
 	{
@@ -40,49 +40,95 @@ public class RenderCylinderGrid extends RenderRegion
 		this.centreZ = centre.getPoint().getZ() + 0.5;
 	}
 	
+	/**
+	 * Set how far above and below the camera the grid is drawn, which also
+	 * thins out the grid lines further from the camera.
+	 * 
+	 * @param layerRange the range in blocks, or 0 for no limit
+	 */
+	public void setLayerRange(int layerRange)
+	{
+		this.layerRange = layerRange;
+	}
+	
 	@Override
 	public void render(CUIRenderContext ctx)
 	{
 		double xPos = this.centreX - ctx.cameraPos().getX();
 		double zPos = this.centreZ - ctx.cameraPos().getZ();
+		final double cameraY = ctx.cameraPos().getY();
+		
+		int tmaxY = this.maxY + 1;
+		int tminY = this.minY;
+		if (this.layerRange > 0)
+		{
+			tmaxY = Math.min(tmaxY, (int)Math.ceil(cameraY + this.layerRange));
+			tminY = Math.max(tminY, (int)Math.floor(cameraY - this.layerRange));
+			if (tminY > tmaxY)
+			{
+				return;
+			}
+		}
+		
+		// the ends of the cylinder get lines across them, but not the ends of the visible range
+		final boolean top = tmaxY == this.maxY + 1;
+		final boolean bottom = tminY == this.minY;
+		final double yTop = tmaxY - cameraY;
+		final double yBottom = tminY - cameraY;
+
+		ctx.beginShape();
+		int posRadiusX = (int)Math.ceil(this.radX);
+		int negRadiusX = (int)-Math.ceil(this.radX);
+		int posRadiusZ = (int)Math.ceil(this.radZ);
+		int negRadiusZ = (int)-Math.ceil(this.radZ);
 
-		for (LineStyle line : this.style.getLines())
+		ctx.beginLines();
+		for (int tempX = negRadiusX; tempX <= posRadiusX; ++tempX)
 		{
-			if (!ctx.apply(line, this.style.getRenderType()))
+			if (Math.abs(tempX) > this.radX)
+			{
+				continue; // outside the cylinder when the radius isn't whole
+			}
+			
+			if (!isLayerDrawn((int)Math.floor(this.centreX) + tempX, Math.abs(xPos + tempX), this.layerRange))
 			{
 				continue;
 			}
 			
-			int tmaxY = this.maxY + 1;
-			int tminY = this.minY;
-			int posRadiusX = (int)Math.ceil(this.radX);
-			int negRadiusX = (int)-Math.ceil(this.radX);
-			int posRadiusZ = (int)Math.ceil(this.radZ);
-			int negRadiusZ = (int)-Math.ceil(this.radZ);
-			final double cameraY = ctx.cameraPos().getY();
-
-			ctx.color(line);
-			for (double tempX = negRadiusX; tempX <= posRadiusX; ++tempX)
+			double tempZ = this.radZ * halfChord(tempX / this.radX);
+			this.drawSection(ctx, xPos + tempX, zPos + tempZ, xPos + tempX, zPos - tempZ, yTop, yBottom, top, bottom);
+		}
+		
+		for (int tempZ = negRadiusZ; tempZ <= posRadiusZ; ++tempZ)
+		{
+			if (Math.abs(tempZ) > this.radZ)
 			{
-				double tempZ = this.radZ * Math.cos(Math.asin(tempX / this.radX));
-				ctx.beginLineLoop()
-					.vertex(xPos + tempX, tmaxY - cameraY, zPos + tempZ)
-					.vertex(xPos + tempX, tmaxY - cameraY, zPos - tempZ)
-					.vertex(xPos + tempX, tminY - cameraY, zPos - tempZ)
-					.vertex(xPos + tempX, tminY - cameraY, zPos + tempZ)
-					.endLineLoop();
+				continue;
 			}
 			
-			for (double tempZ = negRadiusZ; tempZ <= posRadiusZ; ++tempZ)
+			if (!isLayerDrawn((int)Math.floor(this.centreZ) + tempZ, Math.abs(zPos + tempZ), this.layerRange))
 			{
-				double tempX = this.radX * Math.sin(Math.acos(tempZ / this.radZ));
-				ctx.beginLineLoop()
-					.vertex(xPos + tempX, tmaxY - cameraY, zPos + tempZ)
-					.vertex(xPos - tempX, tmaxY - cameraY, zPos + tempZ)
-					.vertex(xPos - tempX, tminY - cameraY, zPos + tempZ)
-					.vertex(xPos + tempX, tminY - cameraY, zPos + tempZ)
-					.endLineLoop();
+				continue;
 			}
+			
+			double tempX = this.radX * halfChord(tempZ / this.radZ);
+			this.drawSection(ctx, xPos + tempX, zPos + tempZ, xPos - tempX, zPos + tempZ, yTop, yBottom, top, bottom);
+		}
+		ctx.endLines();
+		ctx.endShape(this.style);
+	}
+	
+	private void drawSection(CUIRenderContext ctx, double x1, double z1, double x2, double z2, double yTop, double yBottom, boolean top, boolean bottom)
+	{
+		ctx.vertex(x1, yTop, z1).vertex(x1, yBottom, z1)
+			.vertex(x2, yTop, z2).vertex(x2, yBottom, z2);
+		if (top)
+		{
+			ctx.vertex(x1, yTop, z1).vertex(x2, yTop, z2);
+		}
+		if (bottom)
+		{
+			ctx.vertex(x1, yBottom, z1).vertex(x2, yBottom, z2);
 		}
 	}
 }
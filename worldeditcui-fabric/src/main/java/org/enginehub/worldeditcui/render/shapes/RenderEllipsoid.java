@@ -10,7 +10,6 @@
 package org.enginehub.worldeditcui.render.shapes;
 
 import org.enginehub.worldeditcui.event.listeners.CUIRenderContext;
-import org.enginehub.worldeditcui.render.LineStyle;
 import org.enginehub.worldeditcui.render.RenderStyle;
 import org.enginehub.worldeditcui.render.points.PointCube;
 import org.enginehub.worldeditcui.util.Vector3;
@@ -23,17 +22,24 @@ import org.enginehub.worldeditcui.util.Vector3;
  */
 public class RenderEllipsoid extends RenderRegion
 {
-
-	protected final static double TAU = Math.PI * 2.0;
-	/**
-	 * The number of intervals to draw in around the ellipsoid.
-	 */
-	protected static final double SUBDIVISIONS = 40;
 	
 	protected PointCube centre;
 	private final Vector3 radii;
 	
+	/**
+	 * Ellipsoids with at most this many slices on an axis draw all of them.
+	 */
+	private static final int MAX_FULL_SLICES = 64;
+	
+	/**
+	 * Number of blocks either side of the camera which keep a slice on
+	 * every block once slices are thinned out. Beyond that, the spacing
+	 * doubles every time the distance doubles.
+	 */
+	private static final int DENSE_SLICES = 8;
+	
 	protected final double centreX, centreY, centreZ;
+	private boolean slices = true;
 	
 	public RenderEllipsoid(RenderStyle style, PointCube centre, Vector3 radii)
 	{
@@ -45,115 +51,128 @@ public class RenderEllipsoid extends RenderRegion
 		this.centreZ = centre.getPoint().getZ() + 0.5;
 	}
 	
+	/**
+	 * Set whether to draw a ring for every block of radius, or only the
+	 * three rings around the centre.
+	 * 
+	 * @param slices whether to draw every ring
+	 */
+	public void setSlices(boolean slices)
+	{
+		this.slices = slices;
+	}
+	
 	@Override
 	public void render(CUIRenderContext ctx)
 	{
-		ctx.flush();
-		ctx.matrixStack().pushMatrix();
-		ctx.matrixStack().translate((float) (this.centreX - ctx.cameraPos().getX()), (float) (this.centreY - ctx.cameraPos().getY()), (float) (this.centreZ - ctx.cameraPos().getZ()));
-		ctx.applyMatrices();
+		final double x = this.centreX - ctx.cameraPos().getX();
+		final double y = this.centreY - ctx.cameraPos().getY();
+		final double z = this.centreZ - ctx.cameraPos().getZ();
 
-		for (LineStyle line : this.style.getLines())
+		ctx.beginShape();
+		this.drawXZPlane(ctx, x, y, z);
+		this.drawYZPlane(ctx, x, y, z);
+		this.drawXYPlane(ctx, x, y, z);
+		ctx.endShape(this.style);
+	}
+	
+	protected void drawXZPlane(final CUIRenderContext ctx, final double x, final double y, final double z)
+	{
+		int yRad = this.slices ? (int)Math.floor(this.radii.getY()) : 0; // only the centre ring without slices
+		for (int yBlock = -yRad; yBlock < yRad; yBlock++)
 		{
-			if (ctx.apply(line, this.style.getRenderType()))
+			if (isSliceDrawn(yBlock, yRad, -y))
 			{
-				ctx.color(line);
-				this.drawXZPlane(ctx);
-				this.drawYZPlane(ctx);
-				this.drawXYPlane(ctx);
+				final double scale = halfChord(yBlock / this.radii.getY());
+				this.drawXZRing(ctx, x, y + yBlock, z, this.radii.getX() * scale, this.radii.getZ() * scale);
 			}
 		}
 
-		ctx.flush();
-		ctx.matrixStack().popMatrix();
-		ctx.applyMatrices();
+		this.drawXZRing(ctx, x, y, z, this.radii.getX(), this.radii.getZ());
 	}
 	
-	protected void drawXZPlane(final CUIRenderContext ctx)
+	/**
+	 * Get whether to draw the slice at an offset from the centre. Large
+	 * ellipsoids keep every slice near the camera, and further away only
+	 * those on multiples of a power of two which grows with distance, so
+	 * the number of slices grows with the log of the radius. The equator
+	 * is drawn separately.
+	 * 
+	 * @param offset the offset of the slice from the centre
+	 * @param radius the number of slices either side of the centre
+	 * @param camera the offset of the camera from the centre
+	 * @return true if the slice should be drawn
+	 */
+	private static boolean isSliceDrawn(int offset, int radius, double camera)
 	{
-		int yRad = (int)Math.floor(this.radii.getY());
-		for (int yBlock = -yRad; yBlock < yRad; yBlock++)
+		if (offset == 0)
 		{
-
-			ctx.beginLineLoop();
-			for (int i = 0; i <= SUBDIVISIONS; i++)
-			{
-				double tempTheta = i * TAU / SUBDIVISIONS;
-				double tempX = this.radii.getX() * Math.cos(tempTheta) * Math.cos(Math.asin(yBlock / this.radii.getY()));
-				double tempZ = this.radii.getZ() * Math.sin(tempTheta) * Math.cos(Math.asin(yBlock / this.radii.getY()));
-				
-				ctx.vertex(tempX, yBlock, tempZ);
-			}
-			ctx.endLineLoop();
+			return false;
 		}
-
-		ctx.beginLineLoop();
-		for (int i = 0; i <= SUBDIVISIONS; i++)
+		
+		if (radius * 2 <= MAX_FULL_SLICES)
 		{
-			double tempTheta = i * TAU / SUBDIVISIONS;
-			double tempX = this.radii.getX() * Math.cos(tempTheta);
-			double tempZ = this.radii.getZ() * Math.sin(tempTheta);
-			
-			ctx.vertex(tempX, 0.0, tempZ);
+			return true;
 		}
-		ctx.endLineLoop();
+		
+		final double distance = Math.abs(offset - camera) / DENSE_SLICES;
+		if (distance < 1)
+		{
+			return true;
+		}
+		
+		final int spacing = Integer.highestOneBit((int)Math.min(distance, 1 << 29)) << 1;
+		return (offset & (spacing - 1)) == 0;
+	}
+	
+	private void drawXZRing(final CUIRenderContext ctx, final double x, final double y, final double z, final double radX, final double radZ)
+	{
+		final double radius = Math.max(radX, radZ);
+		final int segments = circleSegments(ctx, radius, circleDistance(y, x, z, radius));
+		ellipse(ctx, x, y, z, radX, 0, 0, 0, 0, radZ, segments);
 	}
 	
-	protected void drawYZPlane(final CUIRenderContext ctx)
+	protected void drawYZPlane(final CUIRenderContext ctx, final double x, final double y, final double z)
 	{
-		int xRad = (int)Math.floor(this.radii.getX());
+		int xRad = this.slices ? (int)Math.floor(this.radii.getX()) : 0;
 		for (int xBlock = -xRad; xBlock < xRad; xBlock++)
 		{
-			ctx.beginLineLoop();
-			for (int i = 0; i <= SUBDIVISIONS; i++)
+			if (isSliceDrawn(xBlock, xRad, -x))
 			{
-				double tempTheta = i * TAU / SUBDIVISIONS;
-				double tempY = this.radii.getY() * Math.cos(tempTheta) * Math.sin(Math.acos(xBlock / this.radii.getX()));
-				double tempZ = this.radii.getZ() * Math.sin(tempTheta) * Math.sin(Math.acos(xBlock / this.radii.getX()));
-				
-				ctx.vertex(xBlock, tempY, tempZ);
+				final double scale = halfChord(xBlock / this.radii.getX());
+				this.drawYZRing(ctx, x + xBlock, y, z, this.radii.getY() * scale, this.radii.getZ() * scale);
 			}
-			ctx.endLineLoop();
 		}
 		
-		ctx.beginLineLoop();
-		for (int i = 0; i <= SUBDIVISIONS; i++)
-		{
-			double tempTheta = i * TAU / SUBDIVISIONS;
-			double tempY = this.radii.getY() * Math.cos(tempTheta);
-			double tempZ = this.radii.getZ() * Math.sin(tempTheta);
-			
-			ctx.vertex(0.0, tempY, tempZ);
-		}
-		ctx.endLineLoop();
+		this.drawYZRing(ctx, x, y, z, this.radii.getY(), this.radii.getZ());
+	}
+	
+	private void drawYZRing(final CUIRenderContext ctx, final double x, final double y, final double z, final double radY, final double radZ)
+	{
+		final double radius = Math.max(radY, radZ);
+		final int segments = circleSegments(ctx, radius, circleDistance(x, y, z, radius));
+		ellipse(ctx, x, y, z, 0, radY, 0, 0, 0, radZ, segments);
 	}
 	
-	protected void drawXYPlane(final CUIRenderContext ctx)
+	protected void drawXYPlane(final CUIRenderContext ctx, final double x, final double y, final double z)
 	{
-		int zRad = (int)Math.floor(this.radii.getZ());
+		int zRad = this.slices ? (int)Math.floor(this.radii.getZ()) : 0;
 		for (int zBlock = -zRad; zBlock < zRad; zBlock++)
 		{
-			ctx.beginLineLoop();
-			for (int i = 0; i <= SUBDIVISIONS; i++)
+			if (isSliceDrawn(zBlock, zRad, -z))
 			{
-				double tempTheta = i * TAU / SUBDIVISIONS;
-				double tempX = this.radii.getX() * Math.sin(tempTheta) * Math.sin(Math.acos(zBlock / this.radii.getZ()));
-				double tempY = this.radii.getY() * Math.cos(tempTheta) * Math.sin(Math.acos(zBlock / this.radii.getZ()));
-				
-				ctx.vertex(tempX, tempY, zBlock);
+				final double scale = halfChord(zBlock / this.radii.getZ());
+				this.drawXYRing(ctx, x, y, z + zBlock, this.radii.getX() * scale, this.radii.getY() * scale);
 			}
-			ctx.endLineLoop();
 		}
 
-		ctx.beginLineLoop();
-		for (int i = 0; i <= SUBDIVISIONS; i++)
-		{
-			double tempTheta = i * TAU / SUBDIVISIONS;
-			double tempX = this.radii.getX() * Math.cos(tempTheta);
-			double tempY = this.radii.getY() * Math.sin(tempTheta);
-			
-			ctx.vertex(tempX, tempY, 0.0);
-		}
-		ctx.endLineLoop();
+		this.drawXYRing(ctx, x, y, z, this.radii.getX(), this.radii.getY());
+	}
+	
+	private void drawXYRing(final CUIRenderContext ctx, final double x, final double y, final double z, final double radX, final double radY)
+	{
+		final double radius = Math.max(radX, radY);
+		final int segments = circleSegments(ctx, radius, circleDistance(z, x, y, radius));
+		ellipse(ctx, x, y, z, radX, 0, 0, 0, radY, 0, segments);
 	}
 }
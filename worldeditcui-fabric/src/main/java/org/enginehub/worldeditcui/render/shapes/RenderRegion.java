@@ -9,6 +9,7 @@
  */
 package org.enginehub.worldeditcui.render.shapes;
 
+import net.minecraft.util.Mth;
 import org.enginehub.worldeditcui.event.listeners.CUIRenderContext;
 import org.enginehub.worldeditcui.render.RenderStyle;
 import org.enginehub.worldeditcui.util.Observable;
@@ -22,6 +23,39 @@ import org.enginehub.worldeditcui.util.Observer;
 public abstract class RenderRegion implements Observer
 {
 	protected static final double OFFSET = 0.001d; // to avoid z-fighting with blocks
+	
+	/**
+	 * Largest distance in pixels a circle drawn with straight segments may
+	 * stray from the true circle.
+	 */
+	private static final double MAX_CHORD_ERROR = 1.0;
+	private static final int MIN_SEGMENTS = 8;
+	private static final int MAX_SEGMENTS = 1024;
+	private static final int DEFAULT_SEGMENTS = 64; // when the size of the screen isn't known
+	
+	/**
+	 * Layers within this fraction of the layer range of the camera are
+	 * all drawn, further ones only every {@link #THIN_SPACING} blocks.
+	 */
+	private static final int DENSE_FRACTION = 4;
+	private static final int THIN_SPACING = 4;
+	
+	/**
+	 * Unit circle at the finest resolution. Every segment count is a power
+	 * of two which divides it, so coarser circles take every n-th point.
+	 */
+	private static final double[] CIRCLE_COS = new double[MAX_SEGMENTS];
+	private static final double[] CIRCLE_SIN = new double[MAX_SEGMENTS];
+	
+	static
+	{
+		for (int i = 0; i < MAX_SEGMENTS; i++)
+		{
+			final double theta = i * Math.PI * 2.0 / MAX_SEGMENTS;
+			CIRCLE_COS[i] = Math.cos(theta);
+			CIRCLE_SIN[i] = Math.sin(theta);
+		}
+	}
 
 	protected RenderStyle style;
 	
@@ -37,6 +71,116 @@ public abstract class RenderRegion implements Observer
 	
 	public abstract void render(CUIRenderContext ctx);
 	
+	/**
+	 * Choose how many segments to draw a circle with, so that it looks
+	 * round at the size it appears on screen without wasting vertices.
+	 * 
+	 * <p>The count is rounded up to a power of two, which also keeps the
+	 * extremes of the circle on its axes.</p>
+	 * 
+	 * @param ctx the render context
+	 * @param radius the radius of the circle, the larger one for an ellipse
+	 * @param distance the distance from the camera to the nearest point of the circle
+	 * @return the number of segments
+	 */
+	protected static int circleSegments(CUIRenderContext ctx, double radius, double distance)
+	{
+		final double pixelScale = ctx.frustum().pixelScale();
+		if (pixelScale <= 0)
+		{
+			return DEFAULT_SEGMENTS;
+		}
+		
+		// a chord strays r(1 - cos(pi / n)) from the circle, which is about r pi^2 / 2n^2
+		final double radiusPixels = radius * pixelScale / Math.max(distance, 1.0);
+		final double segments = Math.PI * Math.sqrt(radiusPixels / (2 * MAX_CHORD_ERROR));
+		if (segments >= MAX_SEGMENTS)
+		{
+			return MAX_SEGMENTS;
+		}
+		return Math.max(Mth.smallestEncompassingPowerOfTwo((int) Math.ceil(segments)), MIN_SEGMENTS);
+	}
+	
+	/**
+	 * Get the distance from the camera to the nearest point of a circle.
+	 * 
+	 * @param axial offset of the circle's centre from the camera along its axis
+	 * @param planarA offset of the circle's centre from the camera along one axis in its plane
+	 * @param planarB offset of the circle's centre from the camera along the other axis in its plane
+	 * @param radius the radius of the circle
+	 * @return the distance
+	 */
+	protected static double circleDistance(double axial, double planarA, double planarB, double radius)
+	{
+		final double radial = Math.sqrt(planarA * planarA + planarB * planarB) - radius;
+		return Math.sqrt(axial * axial + radial * radial);
+	}
+	
+	/**
+	 * Draw an ellipse as a line loop, at the centre plus {@code u cos t + v sin t}.
+	 * 
+	 * @param ctx the render context
+	 * @param segments the number of segments to draw the ellipse with, from {@link #circleSegments}
+	 */
+	protected static void ellipse(CUIRenderContext ctx, double x, double y, double z, double uX, double uY, double uZ, double vX, double vY, double vZ, int segments)
+	{
+		final int stride = MAX_SEGMENTS / segments;
+		ctx.beginLineLoop();
+		for (int i = 0; i < MAX_SEGMENTS; i += stride)
+		{
+			final double cos = CIRCLE_COS[i];
+			final double sin = CIRCLE_SIN[i];
+			ctx.vertex(x + uX * cos + vX * sin, y + uY * cos + vY * sin, z + uZ * cos + vZ * sin);
+		}
+		ctx.endLineLoop();
+	}
+	
+	/**
+	 * Draw a horizontal elliptical ring, such as the edge of a cylinder,
+	 * with as many segments as it needs at its distance from the camera.
+	 * 
+	 * @param ctx the render context
+	 * @param x the x offset of the centre from the camera
+	 * @param y the y offset of the centre from the camera
+	 * @param z the z offset of the centre from the camera
+	 * @param radX the radius along the x axis
+	 * @param radZ the radius along the z axis
+	 */
+	protected static void ring(CUIRenderContext ctx, double x, double y, double z, double radX, double radZ)
+	{
+		final double radius = Math.max(radX, radZ);
+		final int segments = circleSegments(ctx, radius, circleDistance(y, x, z, radius));
+		ellipse(ctx, x, y, z, radX, 0, 0, 0, 0, radZ, segments);
+	}
+	
+	/**
+	 * Get the half-length of the chord of a unit circle at a distance from
+	 * its centre, the same as {@code cos(asin(t))}.
+	 * 
+	 * @param t the distance from the centre, between -1 and 1
+	 * @return the half-length of the chord
+	 */
+	protected static double halfChord(double t)
+	{
+		return Math.sqrt(Math.max(0.0, 1.0 - t * t));
+	}
+	
+	/**
+	 * Get whether to draw one of a stack of grid layers. Layers close to
+	 * the camera are all drawn, and further ones only on multiples of a
+	 * fixed spacing, so they don't shift as the camera moves. Layers
+	 * outside the range are left for the caller to skip.
+	 * 
+	 * @param layer the block coordinate of the layer
+	 * @param distance the distance from the camera to the layer along its axis
+	 * @param layerRange the layer range, or 0 to draw every layer
+	 * @return true if the layer should be drawn
+	 */
+	protected static boolean isLayerDrawn(int layer, double distance, int layerRange)
+	{
+		return layerRange <= 0 || distance <= (double) layerRange / DENSE_FRACTION || (layer & (THIN_SPACING - 1)) == 0;
+	}
+	
 	@Override
 	public void notifyChanged(Observable<?> source)
 	{
@@ -32,6 +32,14 @@ public abstract class Observable<TObserver extends Observer>
 		this.observers.add(observer);
 	}
 	
+	public void removeObserver(TObserver observer)
+	{
+		if (this.observers != null)
+		{
+			this.observers.remove(observer);
+		}
+	}
+	
 	protected void notifyObservers()
 	{
 		if (this.observers != null)
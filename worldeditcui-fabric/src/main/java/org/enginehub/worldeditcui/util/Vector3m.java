@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2011-2024 WorldEditCUI team and contributors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.enginehub.worldeditcui.util;
+
+import net.minecraft.world.phys.Vec3;
+
+/**
+ * A version of Vector3 that can be modified, for positions which
+ * change every frame and would otherwise need a new vector each time.
+ */
+public class Vector3m extends Vector3
+{
+	
+	public Vector3m()
+	{
+	}
+	
+	public Vector3m(double x, double y, double z)
+	{
+		super(x, y, z);
+	}
+	
+	public Vector3m(Vector3 original)
+	{
+		super(original);
+	}
+	
+	/**
+	 * Sets all three coordinates
+	 *
+	 * @param x The x coordinate
+	 * @param y The y coordinate
+	 * @param z The z coordinate
+	 * @return this vector
+	 */
+	public Vector3m set(double x, double y, double z)
+	{
+		this.x = x;
+		this.y = y;
+		this.z = z;
+		return this;
+	}
+	
+	/**
+	 * Sets all three coordinates from Minecraft's 3D Vector class
+	 *
+	 * @param nativeVector Native Vector
+	 * @return this vector
+	 */
+	public Vector3m set(Vec3 nativeVector)
+	{
+		return this.set(nativeVector.x(), nativeVector.y(), nativeVector.z());
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2011-2024 WorldEditCUI team and contributors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.enginehub.worldeditcui.event;
+
+import org.enginehub.worldeditcui.WorldEditCUI;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the numeric parameters parsed when an event is received.
+ */
+class CUIEventArgsTest
+{
+	private final WorldEditCUI controller = new WorldEditCUI();
+
+	@BeforeEach
+	void setUp()
+	{
+		this.controller.initialise(null);
+	}
+
+	@Test
+	void wholeNumbers()
+	{
+		final CUIEventArgs args = this.args("0", "42", "-7", "999999999", "-999999999");
+		assertEquals(0, args.getInt(0));
+		assertEquals(42, args.getInt(1));
+		assertEquals(-7, args.getInt(2));
+		assertEquals(999999999, args.getInt(3));
+		assertEquals(-999999999, args.getInt(4));
+		assertEquals(42.0, args.getDouble(1));
+	}
+
+	@Test
+	void wholeNumbersTooLongForAnInt()
+	{
+		final CUIEventArgs args = this.args("12345678901", "-30000000000");
+		assertEquals(12345678901.0, args.getDouble(0));
+		assertEquals(-30000000000.0, args.getDouble(1));
+	}
+
+	@Test
+	void decimals()
+	{
+		final CUIEventArgs args = this.args("1.5", "-0.25", ".5", "1e3", "+2", "2.75");
+		assertEquals(1.5, args.getDouble(0));
+		assertEquals(-0.25, args.getDouble(1));
+		assertEquals(0.5, args.getDouble(2));
+		assertEquals(1000.0, args.getDouble(3));
+		assertEquals(2.0, args.getDouble(4));
+		assertEquals(2, args.getInt(5));
+	}
+
+	@Test
+	void nonNumericParametersAreKeptAsStrings()
+	{
+		final CUIEventArgs args = this.args("cuboid", "-", "12a", "1.2.3", "NaN", "Infinity");
+		for (int i = 0; i < args.getParams().size(); i++)
+		{
+			final int index = i;
+			assertThrows(NumberFormatException.class, () -> args.getDouble(index), args.getParams().get(i));
+			assertThrows(NumberFormatException.class, () -> args.getInt(index), args.getParams().get(i));
+		}
+		assertEquals("cuboid", args.getParams().get(0));
+	}
+
+	@Test
+	void singleEmptyParameterMeansNone()
+	{
+		assertTrue(this.args("").getParams().isEmpty());
+		assertEquals(2, this.args("", "").getParams().size());
+	}
+
+	private CUIEventArgs args(String... params)
+	{
+		return new CUIEventArgs(this.controller, false, "p", List.of(params));
+	}
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2011-2024 WorldEditCUI team and contributors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.enginehub.worldeditcui.event;
+
+import org.enginehub.worldeditcui.WorldEditCUI;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks which queued events are left out when a later event makes them
+ * redundant, the order the rest are raised in, and how many are raised
+ * within a tick's budget.
+ */
+class CUIEventQueueTest
+{
+	private final WorldEditCUI controller = new WorldEditCUI();
+	private final CUIEventQueue queue = new CUIEventQueue();
+	private RecordingDispatcher dispatcher;
+
+	@BeforeEach
+	void setUp()
+	{
+		this.controller.initialise(null);
+		this.dispatcher = new RecordingDispatcher(this.controller);
+	}
+
+	@Test
+	void laterPointReplacesEarlierInPlace()
+	{
+		this.add(false, "p", "0", "1", "2", "3", "8");
+		final CUIEventArgs other = this.add(false, "p", "1", "4", "5", "6", "8");
+		final CUIEventArgs second = this.add(false, "p", "0", "7", "8", "9", "8");
+
+		assertEquals(2, this.queue.size());
+		this.queue.drain(this.dispatcher, 0);
+		assertEquals(List.of(second, other), this.dispatcher.raised);
+	}
+
+	@Test
+	void pointsOnDifferentRegionsAreKept()
+	{
+		final CUIEventArgs primary = this.add(false, "p", "0", "1", "2", "3", "8");
+		final CUIEventArgs selection = this.add(true, "s", "cuboid", "a");
+		final CUIEventArgs multi = this.add(true, "p", "0", "1", "2", "3", "8");
+
+		this.queue.drain(this.dispatcher, 0);
+		assertEquals(List.of(primary, selection, multi), this.dispatcher.raised);
+	}
+
+	@Test
+	void selectionDropsEarlierEvents()
+	{
+		this.add(false, "p", "0", "1", "2", "3", "8");
+		this.add(false, "mm", "0", "64");
+		final CUIEventArgs selection = this.add(false, "s", "cuboid");
+		final CUIEventArgs point = this.add(false, "p", "0", "4", "5", "6", "8");
+
+		assertEquals(2, this.queue.size());
+		this.queue.drain(this.dispatcher, 0);
+		assertEquals(List.of(selection, point), this.dispatcher.raised);
+	}
+
+	@Test
+	void multiSelectionOnlyDropsItsRegion()
+	{
+		this.add(true, "s", "cuboid", "a");
+		this.add(true, "p", "0", "1", "2", "3", "8");
+		final CUIEventArgs otherSelection = this.add(true, "s", "cuboid", "b");
+		final CUIEventArgs otherPoint = this.add(true, "p", "0", "1", "2", "3", "8");
+		final CUIEventArgs selection = this.add(true, "s", "cuboid", "a");
+
+		this.queue.drain(this.dispatcher, 0);
+		assertEquals(List.of(otherSelection, otherPoint, selection), this.dispatcher.raised);
+	}
+
+	@Test
+	void multiSelectionWithoutIdDropsEveryMultiEvent()
+	{
+		final CUIEventArgs primary = this.add(false, "p", "0", "1", "2", "3", "8");
+		this.add(true, "s", "cuboid", "a");
+		this.add(true, "p", "0", "1", "2", "3", "8");
+		this.add(true, "s", "cuboid", "b");
+		this.add(true, "p", "1", "1", "2", "3", "8");
+		final CUIEventArgs clear = this.add(true, "s", "cuboid");
+
+		assertEquals(2, this.queue.size());
+		this.queue.drain(this.dispatcher, 0);
+		assertEquals(List.of(primary, clear), this.dispatcher.raised);
+	}
+
+	@Test
+	void pointAfterBulkPointIsRaisedAfterIt()
+	{
+		final CUIEventArgs point = this.add(false, "p", "0", "1", "2", "3", "8");
+		final CUIEventArgs bulk = this.add(false, "pb", "0", "4", "5", "6", "1", "7", "8", "9");
+		final CUIEventArgs later = this.add(false, "p", "0", "10", "11", "12", "8");
+
+		this.queue.drain(this.dispatcher, 0);
+		assertEquals(List.of(point, bulk, later), this.dispatcher.raised);
+	}
+
+	@Test
+	void drainRaisesPrimaryEventsPastTheBudget()
+	{
+		final CUIEventArgs first = this.add(false, "p", "0", "1", "2", "3", "8");
+		final CUIEventArgs second = this.add(false, "p", "1", "4", "5", "6", "8");
+		final CUIEventArgs selection = this.add(true, "s", "cuboid", "a");
+		final CUIEventArgs point = this.add(true, "p", "0", "1", "2", "3", "8");
+
+		// every event takes longer than the whole budget
+		this.dispatcher.delayMillis = 5;
+		assertEquals(3, this.queue.drain(this.dispatcher, 1));
+		assertEquals(List.of(first, second, selection), this.dispatcher.raised);
+		assertEquals(1, this.queue.size());
+
+		assertEquals(1, this.queue.drain(this.dispatcher, 1));
+		assertEquals(List.of(first, second, selection, point), this.dispatcher.raised);
+		assertTrue(this.queue.isEmpty());
+	}
+
+	@Test
+	void drainRaisesOneMultiEventPerTickAtLeast()
+	{
+		this.add(true, "s", "cuboid", "a");
+		this.add(true, "p", "0", "1", "2", "3", "8");
+		this.add(true, "p", "1", "4", "5", "6", "8");
+
+		this.dispatcher.delayMillis = 5;
+		for (int tick = 1; tick <= 3; tick++)
+		{
+			assertEquals(1, this.queue.drain(this.dispatcher, 1));
+			assertEquals(3 - tick, this.queue.size());
+		}
+	}
+
+	@Test
+	void drainWithoutBudgetRaisesEverything()
+	{
+		this.add(true, "s", "cuboid", "a");
+		this.add(true, "p", "0", "1", "2", "3", "8");
+		this.add(true, "p", "1", "4", "5", "6", "8");
+
+		this.dispatcher.delayMillis = 2;
+		assertEquals(3, this.queue.drain(this.dispatcher, 0));
+		assertTrue(this.queue.isEmpty());
+	}
+
+	@Test
+	void clearDropsEverything()
+	{
+		this.add(false, "p", "0", "1", "2", "3", "8");
+		this.add(true, "s", "cuboid", "a");
+		this.add(true, "p", "0", "1", "2", "3", "8");
+
+		this.queue.clear();
+		assertTrue(this.queue.isEmpty());
+		assertEquals(0, this.queue.drain(this.dispatcher, 0));
+
+		// and it is still usable afterwards
+		final CUIEventArgs point = this.add(true, "p", "0", "1", "2", "3", "8");
+		this.queue.drain(this.dispatcher, 0);
+		assertEquals(List.of(point), this.dispatcher.raised);
+	}
+
+	private CUIEventArgs add(boolean multi, String type, String... params)
+	{
+		final CUIEventArgs event = new CUIEventArgs(this.controller, multi, type, List.of(params));
+		this.queue.add(event);
+		return event;
+	}
+
+	/**
+	 * A dispatcher which only records the events raised through it, taking
+	 * a set time over each one.
+	 */
+	private static class RecordingDispatcher extends CUIEventDispatcher
+	{
+		final List<CUIEventArgs> raised = new ArrayList<>();
+		long delayMillis;
+
+		RecordingDispatcher(WorldEditCUI controller)
+		{
+			super(controller);
+		}
+
+		@Override
+		public void raiseEvent(CUIEventArgs eventArgs)
+		{
+			this.raised.add(eventArgs);
+			if (this.delayMillis > 0)
+			{
+				try
+				{
+					Thread.sleep(this.delayMillis);
+				}
+				catch (InterruptedException ex)
+				{
+					Thread.currentThread().interrupt();
+				}
+			}
+		}
+	}
+}
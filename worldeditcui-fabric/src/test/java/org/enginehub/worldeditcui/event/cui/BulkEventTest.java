@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2011-2024 WorldEditCUI team and contributors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.enginehub.worldeditcui.event.cui;
+
+import org.enginehub.worldeditcui.WorldEditCUI;
+import org.enginehub.worldeditcui.event.CUIEvent;
+import org.enginehub.worldeditcui.event.CUIEventArgs;
+import org.enginehub.worldeditcui.event.CUIEventType;
+import org.enginehub.worldeditcui.event.listeners.CUIRenderContext;
+import org.enginehub.worldeditcui.event.listeners.TestFrames;
+import org.enginehub.worldeditcui.render.RecordingSink;
+import org.enginehub.worldeditcui.render.region.PolyhedronRegion;
+import org.enginehub.worldeditcui.render.region.Region;
+import org.enginehub.worldeditcui.util.Vector3m;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the bulk point and polygon events, and batches of events which
+ * are only applied once they are committed.
+ */
+class BulkEventTest
+{
+	private final WorldEditCUI controller = new WorldEditCUI();
+	private final CUIRenderContext ctx = new CUIRenderContext();
+	private final RecordingSink sink = new RecordingSink();
+	private final Vector3m camera = new Vector3m(0, 80, 0);
+
+	@BeforeEach
+	void setUp()
+	{
+		this.controller.initialise(null);
+	}
+
+	@Test
+	void bulkPointsNeedWholePoints()
+	{
+		assertDoesNotThrow(() -> this.event("pb", "0", "1", "2", "3").prepare());
+		assertDoesNotThrow(() -> this.event("pb", "0", "1", "2", "3", "1", "4", "5", "6").prepare());
+		assertThrows(IllegalArgumentException.class, () -> this.event("pb", "0", "1", "2").prepare());
+		assertThrows(IllegalArgumentException.class, () -> this.event("pb", "0", "1", "2", "3", "1").prepare());
+	}
+
+	@Test
+	void bulkPoints2DNeedWholePoints()
+	{
+		assertDoesNotThrow(() -> this.event("p2b", "0", "1", "2").prepare());
+		assertDoesNotThrow(() -> this.event("p2b", "0", "1", "2", "1", "3", "4").prepare());
+		assertThrows(IllegalArgumentException.class, () -> this.event("p2b", "0", "1").prepare());
+		assertThrows(IllegalArgumentException.class, () -> this.event("p2b", "0", "1", "2", "1").prepare());
+	}
+
+	@Test
+	void bulkPointsSetEveryPoint()
+	{
+		this.raise("pb", "0", "1", "60", "2", "1", "5", "62", "8");
+
+		final Region selection = this.controller.getSelection(false);
+		this.render(selection);
+		assertTrue(selection.hasBounds());
+		assertEquals(1, selection.getMinX(), 0.05);
+		assertEquals(60, selection.getMinY(), 0.05);
+		assertEquals(2, selection.getMinZ(), 0.05);
+		assertEquals(6, selection.getMaxX(), 0.05);
+		assertEquals(63, selection.getMaxY(), 0.05);
+		assertEquals(9, selection.getMaxZ(), 0.05);
+	}
+
+	@Test
+	void bulkPolygonsNeedWholeFaces()
+	{
+		this.controller.setSelection(null, new PolyhedronRegion(this.controller));
+		this.raise("pb", "0", "0", "60", "0", "1", "4", "60", "0", "2", "0", "60", "4", "3", "0", "64", "0");
+
+		assertDoesNotThrow(() -> this.raise("polyb", "3", "0", "1", "2", "4", "0", "1", "2", "3"));
+		assertThrows(IllegalArgumentException.class, () -> this.raise("polyb", "3", "0", "1"));
+		assertThrows(IllegalArgumentException.class, () -> this.raise("polyb", "4", "0", "1", "2"));
+		assertThrows(IllegalArgumentException.class, () -> this.raise("polyb", "2", "0", "1", "3", "0", "1", "2"));
+	}
+
+	@Test
+	void batchHoldsChangesUntilCommitted()
+	{
+		final Region selection = this.compiledSelection();
+
+		this.raise("batch", "begin");
+		this.raise("pb", "0", "10", "60", "10", "1", "20", "70", "20");
+		assertFalse(selection.isDirty());
+
+		// nested batches are applied with the outermost one
+		this.raise("batch", "begin");
+		this.raise("p", "0", "11", "61", "11", "100");
+		this.raise("batch", "commit");
+		assertFalse(selection.isDirty());
+
+		this.raise("batch", "commit");
+		assertTrue(selection.isDirty());
+	}
+
+	@Test
+	void batchLeavesTheLastGeometryDrawn()
+	{
+		final Region selection = this.compiledSelection();
+		final double maxX = selection.getMaxX();
+
+		this.raise("batch", "begin");
+		this.raise("p", "1", "40", "62", "8", "100");
+		this.render(selection);
+		assertEquals(maxX, selection.getMaxX());
+
+		this.raise("batch", "commit");
+		this.render(selection);
+		assertEquals(41, selection.getMaxX(), 0.05);
+	}
+
+	@Test
+	void commitOutsideBatchIsIgnored()
+	{
+		final Region selection = this.compiledSelection();
+
+		this.raise("batch", "commit");
+		assertFalse(selection.isDirty());
+
+		// a batch started afterwards is still held back
+		this.raise("batch", "begin");
+		this.raise("p", "0", "10", "60", "10", "100");
+		assertFalse(selection.isDirty());
+		this.raise("batch", "commit");
+		assertTrue(selection.isDirty());
+	}
+
+	@Test
+	void unknownBatchActionIsRejected()
+	{
+		assertThrows(IllegalArgumentException.class, () -> this.raise("batch", "rollback"));
+	}
+
+	private Region compiledSelection()
+	{
+		this.raise("pb", "0", "1", "60", "2", "1", "5", "62", "8");
+
+		final Region selection = this.controller.getSelection(false);
+		this.render(selection);
+		assertFalse(selection.isDirty());
+		return selection;
+	}
+
+	private void render(Region region)
+	{
+		TestFrames.render(this.ctx, this.camera, this.sink, region::render);
+	}
+
+	private CUIEvent event(String type, String... params)
+	{
+		return CUIEventType.named(type).make(new CUIEventArgs(this.controller, false, type, List.of(params)));
+	}
+
+	private void raise(String type, String... params)
+	{
+		final CUIEvent event = this.event(type, params);
+		event.prepare();
+		event.raise();
+	}
+}
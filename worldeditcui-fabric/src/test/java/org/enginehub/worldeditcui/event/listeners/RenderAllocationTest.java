@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2011-2024 WorldEditCUI team and contributors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.enginehub.worldeditcui.event.listeners;
+
+import com.sun.management.ThreadMXBean;
+import org.enginehub.worldeditcui.WorldEditCUI;
+import org.enginehub.worldeditcui.render.DrawCommandQueue;
+import org.enginehub.worldeditcui.render.RecordingSink;
+import org.enginehub.worldeditcui.render.RenderSink;
+import org.enginehub.worldeditcui.render.region.CylinderRegion;
+import org.enginehub.worldeditcui.render.region.EllipsoidRegion;
+import org.enginehub.worldeditcui.render.region.PolygonRegion;
+import org.enginehub.worldeditcui.render.region.Region;
+import org.enginehub.worldeditcui.util.Vector3m;
+import org.joml.Vector3f;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Checks that rendering unchanged selections allocates nothing, from the
+ * render context down to the sink, both directly and through the draw
+ * command queue used by the buffer builder pipelines.
+ */
+class RenderAllocationTest
+{
+	private static final int WARMUP_FRAMES = 2000;
+	private static final int MEASURED_FRAMES = 200;
+
+	// looking north from above the selections
+	private static final Vector3f LOOK = new Vector3f(0, 0, -1);
+	private static final Vector3f UP = new Vector3f(0, 1, 0);
+	private static final Vector3f LEFT = new Vector3f(-1, 0, 0);
+
+	private final WorldEditCUI controller = new WorldEditCUI();
+	private final CUIRenderContext ctx = new CUIRenderContext();
+	private final RecordingSink recorder = new RecordingSink();
+	private final Vector3m cameraPos = new Vector3m();
+	private final Consumer<CUIRenderContext> renderSelections = this.controller::renderSelections;
+
+	@BeforeEach
+	void setUp()
+	{
+		// chunk borders are off, so nothing needs the game client
+		this.controller.initialise(null);
+
+		final Region selection = this.controller.getSelection(false);
+		selection.setCuboidPoint(0, -8, 60, -40);
+		selection.setCuboidPoint(1, 8, 72, -24);
+
+		final Region polygon = new PolygonRegion(this.controller);
+		polygon.setPolygonPoint(0, -30, -60);
+		polygon.setPolygonPoint(1, -10, -70);
+		polygon.setPolygonPoint(2, -5, -50);
+		polygon.setMinMax(60, 70);
+		this.controller.setSelection(UUID.randomUUID(), polygon);
+
+		final Region ellipsoid = new EllipsoidRegion(this.controller);
+		ellipsoid.setEllipsoidCenter(20, 64, -50);
+		ellipsoid.setEllipsoidRadii(6, 4, 6);
+		this.controller.setSelection(UUID.randomUUID(), ellipsoid);
+
+		final Region cylinder = new CylinderRegion(this.controller);
+		cylinder.setCylinderCenter(0, 60, -80);
+		cylinder.setCylinderRadius(10, 10);
+		cylinder.setMinMax(60, 68);
+		this.controller.setSelection(UUID.randomUUID(), cylinder);
+	}
+
+	@Test
+	void steadyStateFrameAllocatesNothing()
+	{
+		this.assertFramesAllocateNothing(this.recorder);
+	}
+
+	@Test
+	void steadyStateQueuedFrameAllocatesNothing()
+	{
+		final DrawCommandQueue queue = new DrawCommandQueue(this.recorder);
+		this.assertFramesAllocateNothing(queue);
+		assertTrue(queue.mergedDrawCalls() > 0, "nothing was submitted by the queue");
+	}
+
+	private void assertFramesAllocateNothing(final RenderSink sink)
+	{
+		final ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+		assumeTrue(threads.isThreadAllocatedMemorySupported(), "allocation counters are not supported by this JVM");
+		threads.setThreadAllocatedMemoryEnabled(true);
+
+		// the first frames compile the selections, and give the JIT a chance to settle
+		for (int i = 0; i < WARMUP_FRAMES; i++)
+		{
+			this.renderFrame(sink);
+		}
+		assertTrue(this.recorder.vertices() > 0, "nothing was rendered");
+
+		final long before = threads.getCurrentThreadAllocatedBytes();
+		for (int i = 0; i < MEASURED_FRAMES; i++)
+		{
+			this.renderFrame(sink);
+		}
+		final long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+		assertEquals(0, allocated, "bytes allocated over " + MEASURED_FRAMES + " frames");
+	}
+
+	private void renderFrame(final RenderSink sink)
+	{
+		this.ctx.frustum().update(LOOK, UP, LEFT, 70, 1920, 1080);
+		TestFrames.render(this.ctx, this.cameraPos.set(0, 80, 0), sink, this.renderSelections);
+	}
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2011-2024 WorldEditCUI team and contributors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.enginehub.worldeditcui.event.listeners;
+
+import org.enginehub.worldeditcui.render.RenderSink;
+import org.enginehub.worldeditcui.util.Vector3;
+
+import java.util.function.Consumer;
+
+/**
+ * Renders frames for tests the same way as {@link CUIListenerWorldRender},
+ * without the GL state around them.
+ */
+public final class TestFrames
+{
+	private TestFrames()
+	{
+	}
+
+	/**
+	 * Render a frame into a sink.
+	 *
+	 * @param ctx the render context, with its frustum already updated
+	 * @param camera the camera position
+	 * @param sink the sink to render into
+	 * @param renderer draws the frame
+	 */
+	public static void render(CUIRenderContext ctx, Vector3 camera, RenderSink sink, Consumer<CUIRenderContext> renderer)
+	{
+		ctx.init(camera, 0, sink);
+		try
+		{
+			renderer.accept(ctx);
+			sink.flush();
+		}
+		finally
+		{
+			ctx.reset();
+		}
+	}
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2011-2024 WorldEditCUI team and contributors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.enginehub.worldeditcui.render;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A sink which only counts what is drawn into it.
+ */
+public final class RecordingSink implements RenderSink
+{
+	private long vertices;
+	private int open;
+
+	/**
+	 * Get the number of vertices drawn so far.
+	 */
+	public long vertices()
+	{
+		return this.vertices;
+	}
+
+	@Override
+	public RenderSink color(float r, float g, float b, float alpha)
+	{
+		return this;
+	}
+
+	@Override
+	public boolean apply(LineStyle line, RenderStyle.RenderType type)
+	{
+		return line.renderType.matches(type);
+	}
+
+	@Override
+	public RenderSink vertex(double x, double y, double z)
+	{
+		assertTrue(this.open > 0, "vertex outside of a begin/end pair");
+		this.vertices++;
+		return this;
+	}
+
+	@Override
+	public RenderSink beginLineLoop()
+	{
+		this.open++;
+		return this;
+	}
+
+	@Override
+	public RenderSink endLineLoop()
+	{
+		this.open--;
+		return this;
+	}
+
+	@Override
+	public RenderSink beginLines()
+	{
+		this.open++;
+		return this;
+	}
+
+	@Override
+	public RenderSink endLines()
+	{
+		this.open--;
+		return this;
+	}
+
+	@Override
+	public RenderSink beginQuads()
+	{
+		this.open++;
+		return this;
+	}
+
+	@Override
+	public RenderSink endQuads()
+	{
+		this.open--;
+		return this;
+	}
+
+	@Override
+	public void flush()
+	{
+	}
+}
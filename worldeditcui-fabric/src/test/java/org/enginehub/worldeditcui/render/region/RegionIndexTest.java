@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2011-2024 WorldEditCUI team and contributors
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.enginehub.worldeditcui.render.region;
+
+import org.enginehub.worldeditcui.WorldEditCUI;
+import org.enginehub.worldeditcui.event.listeners.CUIRenderContext;
+import org.enginehub.worldeditcui.event.listeners.TestFrames;
+import org.enginehub.worldeditcui.render.RecordingSink;
+import org.enginehub.worldeditcui.render.ViewFrustum;
+import org.enginehub.worldeditcui.util.Vector3m;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the region index finds the regions near the camera as they
+ * are compiled, moved and removed.
+ */
+class RegionIndexTest
+{
+	private static final double DISTANCE = 32;
+
+	private final WorldEditCUI controller = new WorldEditCUI();
+	private final RegionIndex index = new RegionIndex();
+	private final CUIRenderContext ctx = new CUIRenderContext();
+	private final RecordingSink sink = new RecordingSink();
+	private final Vector3m camera = new Vector3m(0, 80, 0);
+
+	// never updated, so only the distance is tested
+	private final ViewFrustum frustum = new ViewFrustum();
+
+	@BeforeEach
+	void setUp()
+	{
+		this.controller.initialise(null);
+	}
+
+	@Test
+	void dirtyRegionsAreAlwaysFound()
+	{
+		final Region region = this.cuboid(1000, 1000);
+		this.index.add(region);
+
+		assertEquals(List.of(region), this.query(0, 0, DISTANCE));
+	}
+
+	@Test
+	void compiledRegionsAreFoundByCell()
+	{
+		// enough occupied cells that only those in range are looked at
+		final List<Region> regions = new ArrayList<>();
+		for (int i = 0; i < 10; i++)
+		{
+			regions.add(this.compiled(i * 2 * RegionIndex.CELL_SIZE, 10));
+		}
+
+		assertEquals(List.of(regions.get(0)), this.query(0, 0, DISTANCE));
+		assertEquals(List.of(regions.get(3)), this.query(6 * RegionIndex.CELL_SIZE, 0, DISTANCE));
+		assertEquals(List.of(), this.query(3 * RegionIndex.CELL_SIZE, 0, DISTANCE));
+		assertEquals(10, this.query(0, 0, 0).size());
+	}
+
+	@Test
+	void regionsInSeveralCellsAreFoundOnce()
+	{
+		final Region region = this.cuboid(-40, -40, 40, 40);
+		this.index.add(region);
+		this.compile(region);
+		for (int i = 1; i < 10; i++)
+		{
+			this.compiled(i * 2 * RegionIndex.CELL_SIZE, 10);
+		}
+
+		assertEquals(List.of(region), this.query(0, 0, 16));
+		assertEquals(List.of(region), this.query(-30, -30, 16));
+	}
+
+	@Test
+	void oversizedRegionsAreAlwaysTested()
+	{
+		final Region region = this.cuboid(-1000, -1000, 1000, 1000);
+		this.index.add(region);
+		this.compile(region);
+		for (int i = 1; i < 10; i++)
+		{
+			this.compiled(i * 2 * RegionIndex.CELL_SIZE, 10);
+		}
+
+		assertEquals(List.of(region), this.query(-500, 500, 16));
+		assertEquals(List.of(), this.query(5000, 5000, 16));
+	}
+
+	@Test
+	void movedRegionsAreReindexed()
+	{
+		final Region region = this.compiled(10, 10);
+		for (int i = 1; i < 10; i++)
+		{
+			this.compiled(i * 2 * RegionIndex.CELL_SIZE, 10);
+		}
+		assertEquals(List.of(region), this.query(0, 0, DISTANCE));
+
+		// found wherever the camera is until it is compiled at its new position
+		region.setCuboidPoint(0, 600, 60, 600);
+		region.setCuboidPoint(1, 602, 66, 602);
+		assertTrue(this.query(0, 0, DISTANCE).contains(region));
+		assertTrue(this.query(5000, 5000, DISTANCE).contains(region));
+
+		this.compile(region);
+		assertEquals(List.of(), this.query(0, 0, DISTANCE));
+		assertEquals(List.of(region), this.query(600, 600, DISTANCE));
+	}
+
+	@Test
+	void removedRegionsAreNotFound()
+	{
+		final Region region = this.compiled(10, 10);
+		final Region other = this.compiled(20, 20);
+
+		this.index.remove(region);
+		assertEquals(1, this.index.size());
+		assertEquals(List.of(other), this.query(0, 0, DISTANCE));
+
+		// no longer observed, so changes don't bring it back
+		region.setCuboidPoint(0, 12, 60, 12);
+		assertEquals(List.of(other), this.query(0, 0, DISTANCE));
+
+		this.index.clear();
+		other.setCuboidPoint(0, 22, 60, 22);
+		assertEquals(0, this.index.size());
+		assertEquals(List.of(), this.query(0, 0, DISTANCE));
+	}
+
+	private List<Region> query(double x, double z, double distance)
+	{
+		final List<Region> found = new ArrayList<>();
+		this.index.query(x, 64, z, this.frustum, distance, found);
+		return found;
+	}
+
+	/**
+	 * Add a small region to the index and compile it.
+	 */
+	private Region compiled(int x, int z)
+	{
+		final Region region = this.cuboid(x, z);
+		this.index.add(region);
+		this.compile(region);
+		assertTrue(region.hasBounds());
+		return region;
+	}
+
+	private Region cuboid(int x, int z)
+	{
+		return this.cuboid(x, z, x + 2, z + 2);
+	}
+
+	private Region cuboid(int minX, int minZ, int maxX, int maxZ)
+	{
+		final Region region = new CuboidRegion(this.controller);
+		region.setCuboidPoint(0, minX, 60, minZ);
+		region.setCuboidPoint(1, maxX, 66, maxZ);
+		return region;
+	}
+
+	private void compile(Region region)
+	{
+		TestFrames.render(this.ctx, this.camera, this.sink, region::render);
+	}
+}